@@ -0,0 +1,307 @@
+import java.util.Arrays;
+
+/**
+* A vector of doubles together with a bound on the absolute rounding error of each component.
+* The bounds follow the standard running error analysis: every operation adds the errors of its inputs,
+* scaled by how much the operation magnifies them, plus half an ulp of its own result.
+*/
+public class ApproximateVector {
+    // the largest relative error of rounding one double operation
+    private static final double UNIT_ROUNDOFF = Math.ulp(1.0) / 2;
+    // converting a fraction rounds the numerator, the denominator and their quotient
+    private static final double CONVERSION_ERROR = 4 * UNIT_ROUNDOFF;
+
+    private final double[] values;
+    private final double[] errors;
+    private final boolean exact;
+
+    /**
+     * @param values the components of the vector
+     * @param errors the bound on the absolute error of each component
+     * @param exact true if the values were rounded from an exact calculation
+     */
+    private ApproximateVector(double[] values, double[] errors, boolean exact) {
+        this.values = values;
+        this.errors = errors;
+        this.exact = exact;
+    }
+
+    /**
+     * Converts the result of an exact calculation, only the final rounding is counted as error.
+     *
+     * @param exactVector the exactly calculated vector
+     * @return the vector rounded to doubles
+     */
+    public static ApproximateVector fromExact(vector exactVector) {
+        ApproximateVector converted = fromVector(exactVector);
+        return new ApproximateVector(converted.values, converted.errors, true);
+    }
+
+    /**
+     * Converts a vector of fractions to doubles as the starting point of an approximate calculation.
+     *
+     * @param value the vector to convert
+     * @return the vector rounded to doubles
+     */
+    public static ApproximateVector fromVector(vector value) {
+        Fraction[] components = value.getComponents();
+        double[] values = new double[components.length];
+        double[] errors = new double[components.length];
+        for (int i = 0; i < components.length; i++) {
+            values[i] = components[i].toDouble();
+            errors[i] = CONVERSION_ERROR * Math.abs(values[i]);
+        }
+        return new ApproximateVector(values, errors, false);
+    }
+
+    /**
+     * Converts a scalar to a 1D vector of doubles.
+     *
+     * @param scalar the scalar to convert
+     * @return the 1D vector rounded to doubles
+     */
+    public static ApproximateVector fromScalar(Fraction scalar) {
+        double value = scalar.toDouble();
+        return new ApproximateVector(new double[] {value}, new double[] {CONVERSION_ERROR * Math.abs(value)}, false);
+    }
+
+    /**
+     * Adds this vector to the specified vector.
+     *
+     * @param other the vector to add to this vector.
+     * @return the vector resulting from the addition.
+     * @throws IllegalAccessException if the specified vector is not the same dimension as this vector.
+     */
+    public ApproximateVector add(ApproximateVector other) throws IllegalAccessException {
+        return combine(other, 1, new double[values.length], new double[values.length]);
+    }
+
+    /**
+     * Subtracts the specified vector from this vector.
+     *
+     * @param other the vector to subtract from this vector.
+     * @return the vector resulting from the subtraction.
+     * @throws IllegalAccessException if the specified vector is not the same dimension as this vector.
+     */
+    public ApproximateVector subtract(ApproximateVector other) throws IllegalAccessException {
+        return combine(other, -1, new double[values.length], new double[values.length]);
+    }
+
+    /**
+     * Adds or subtracts the other vector into the arrays of this vector instead of new arrays.
+     * Only used on the intermediate results of an expression that nothing else refers to.
+     *
+     * @param other the vector to add or subtract
+     * @param sign 1 to add or -1 to subtract
+     * @return this vector, holding the result
+     * @throws IllegalAccessException if the specified vector is not the same dimension as this vector.
+     */
+    ApproximateVector combineInPlace(ApproximateVector other, int sign) throws IllegalAccessException {
+        return combine(other, sign, values, errors);
+    }
+
+    /**
+     * Multiplies this vector by a scalar.
+     *
+     * @param multiple the scalar to multiply by
+     * @return the vector resulting from the multiplication.
+     */
+    public ApproximateVector scalarMultiply(Fraction multiple) {
+        return scale(multiple, new double[values.length], new double[values.length]);
+    }
+
+    /**
+     * Multiplies this vector by a scalar in the arrays of this vector instead of new arrays.
+     * Only used on the intermediate results of an expression that nothing else refers to.
+     *
+     * @param multiple the scalar to multiply by
+     * @return this vector, holding the result
+     */
+    ApproximateVector scalarMultiplyInPlace(Fraction multiple) {
+        return scale(multiple, values, errors);
+    }
+
+    /**
+     * Multiplies this vector by a scalar, writing the result to the given arrays.
+     *
+     * @param multiple the scalar to multiply by
+     * @param newValues the array for the values of the result, can be the values of this vector
+     * @param newErrors the array for the error bounds of the result, can be the errors of this vector
+     * @return the vector resulting from the multiplication
+     */
+    private ApproximateVector scale(Fraction multiple, double[] newValues, double[] newErrors) {
+        double scalar = multiple.toDouble();
+        double scalarError = CONVERSION_ERROR * Math.abs(scalar);
+        for (int i = 0; i < values.length; i++) {
+            double value = values[i];
+            newValues[i] = value * scalar;
+            newErrors[i] = productError(value, errors[i], scalar, scalarError, newValues[i]);
+        }
+        if (newValues == values) return this;
+        return new ApproximateVector(newValues, newErrors, false);
+    }
+
+    /**
+     * Calculates the dot product of this vector and the specified vector.
+     *
+     * @param other the vector to calculate the dot product with.
+     * @return a 1D vector holding the dot product.
+     * @throws IllegalAccessException if the specified vector is not the same dimension as this vector.
+     */
+    public ApproximateVector dotProduct(ApproximateVector other) throws IllegalAccessException {
+        if (values.length != other.values.length) throw new IllegalAccessException("Vectors are not the Same Dimensions");
+        double sum = 0;
+        double sumError = 0;
+        for (int i = 0; i < values.length; i++) {
+            double product = values[i] * other.values[i];
+            double productError = productError(values[i], errors[i], other.values[i], other.errors[i], product);
+            sum += product;
+            sumError += productError + UNIT_ROUNDOFF * Math.abs(sum);
+        }
+        return new ApproximateVector(new double[] {sum}, new double[] {sumError}, false);
+    }
+
+    /**
+     * Calculates the cross product of this vector and the specified vector.
+     * Like vector.crossProduct, the cross product of 1D vectors is their dot product.
+     *
+     * @param other the vector to calculate the cross product with.
+     * @return the result of the cross product.
+     * @throws IllegalAccessException if the two vectors are not both 3D or both 1D.
+     */
+    public ApproximateVector crossProduct(ApproximateVector other) throws IllegalAccessException {
+        if (values.length == other.values.length) {
+            if (values.length == 1) {
+                return dotProduct(other);
+            }
+            else if (values.length == 3) {
+                double[] newValues = new double[3];
+                double[] newErrors = new double[3];
+                for (int component = 0; component < 3; component++) {
+                    // component x uses y and z, y uses z and x, z uses x and y
+                    int first = (component + 1) % 3;
+                    int second = (component + 2) % 3;
+                    double left = values[first] * other.values[second];
+                    double right = values[second] * other.values[first];
+                    newValues[component] = left - right;
+                    newErrors[component] = productError(values[first], errors[first], other.values[second], other.errors[second], left)
+                            + productError(values[second], errors[second], other.values[first], other.errors[first], right)
+                            + UNIT_ROUNDOFF * Math.abs(newValues[component]);
+                }
+                return new ApproximateVector(newValues, newErrors, false);
+            }
+        }
+        throw new IllegalAccessException("One or more Vector not 3 Dimensional");
+    }
+
+    /**
+     * Returns the components of this vector.
+     *
+     * @return a copy of the components as doubles
+     */
+    public double[] getValues() {
+        return values.clone();
+    }
+
+    /**
+     * Returns a component of this vector.
+     *
+     * @param index the index of the component, 0 for x, 1 for y and so on
+     * @return the component as a double
+     */
+    public double getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * Returns the dimension of this vector.
+     *
+     * @return the dimension as an integer
+     */
+    public int getDimension() {
+        return values.length;
+    }
+
+    /**
+     * Returns the largest bound on the absolute error of any component.
+     *
+     * @return the error bound
+     */
+    public double getErrorBound() {
+        double bound = 0;
+        for (double error : errors) {
+            bound = Math.max(bound, error);
+        }
+        return bound;
+    }
+
+    /**
+     * Checks if the error bound of every component is at most the tolerance relative to the size of the component.
+     * Components smaller than 1 are compared with the tolerance itself.
+     *
+     * @param tolerance the largest accepted relative error
+     * @return boolean - true if every error bound is within the tolerance, false otherwise
+     */
+    public boolean isWithin(double tolerance) {
+        for (int i = 0; i < values.length; i++) {
+            if (!(errors[i] <= tolerance * Math.max(1, Math.abs(values[i])))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the values were calculated exactly with fractions and only rounded at the end.
+     *
+     * @return boolean - true if the exact calculation was used, false if the values were calculated with doubles
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    /**
+     * Adds or subtracts the other vector component by component.
+     *
+     * @param other the other vector
+     * @param sign 1 to add or -1 to subtract
+     * @param newValues the array for the values of the result, can be the values of this vector
+     * @param newErrors the array for the error bounds of the result, can be the errors of this vector
+     * @return the resulting vector
+     * @throws IllegalAccessException if the specified vector is not the same dimension as this vector.
+     */
+    private ApproximateVector combine(ApproximateVector other, int sign, double[] newValues, double[] newErrors) throws IllegalAccessException {
+        if (values.length != other.values.length) throw new IllegalAccessException("Vectors are not the Same Dimensions");
+        for (int i = 0; i < values.length; i++) {
+            newValues[i] = values[i] + sign * other.values[i];
+            newErrors[i] = errors[i] + other.errors[i] + UNIT_ROUNDOFF * Math.abs(newValues[i]);
+        }
+        if (newValues == values) return this;
+        return new ApproximateVector(newValues, newErrors, false);
+    }
+
+    /**
+     * Returns the error bound of a product of two approximate values.
+     *
+     * @param first the first value
+     * @param firstError the error bound of the first value
+     * @param second the second value
+     * @param secondError the error bound of the second value
+     * @param product the rounded product of the two values
+     * @return the bound on the absolute error of the product
+     */
+    private static double productError(double first, double firstError, double second, double secondError, double product) {
+        return Math.abs(first) * secondError + Math.abs(second) * firstError + firstError * secondError
+                + UNIT_ROUNDOFF * Math.abs(product);
+    }
+
+    /**
+     * Converts the vector to a string like [x, y, z], with a scalar written without brackets,
+     * followed by the error bound.
+     *
+     * @return the vector and its error bound as a string
+     */
+    @Override
+    public String toString() {
+        String valueStr = values.length == 1 ? Double.toString(values[0]) : Arrays.toString(values);
+        return valueStr + " (error <= " + getErrorBound() + (exact ? ", exact" : "") + ")";
+    }
+}
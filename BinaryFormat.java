@@ -0,0 +1,155 @@
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+* Encodes numbers and fractions for the binary files of the calculator, the quiz log and the result store.
+* Numbers are written as varints, 7 bits per byte, so small numbers take a single byte.
+* A fraction is its numerator (zigzag varint) and denominator (varint), or a denominator of 0 followed by
+* the numerator and denominator as BigInteger bytes when it doesn't fit in a long.
+*/
+class BinaryFormat {
+    // the most bytes a varint of a long takes
+    static final int MAX_VARLONG_SIZE = 10;
+
+    /**
+     * Writes a number in 7 bit groups, the high bit of each byte is set if more bytes follow.
+     *
+     * @param out the buffer to write to
+     * @param value the number, treated as unsigned
+     */
+    static void putVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte)((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte)value);
+    }
+
+    /**
+     * Reads a number written by putVarLong.
+     *
+     * @param in the buffer to read from
+     * @return the number
+     * @throws BufferUnderflowException if the buffer ends in the middle of the number
+     */
+    static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte current = in.get();
+            value |= (long)(current & 0x7F) << shift;
+            if (current >= 0) return value;
+        }
+        return value;
+    }
+
+    /**
+     * Maps signed numbers to unsigned so numbers close to 0 stay small: 0, -1, 1, -2 become 0, 1, 2, 3.
+     *
+     * @param value the signed number
+     * @return the unsigned number
+     */
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Reverses zigzag.
+     *
+     * @param value the unsigned number
+     * @return the signed number
+     */
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Returns the most bytes putFraction writes for a fraction.
+     *
+     * @param value the fraction
+     * @return the maximum encoded size in bytes
+     */
+    static int maxFractionSize(Fraction value) {
+        if (!value.isBig()) return 2 * MAX_VARLONG_SIZE;
+        return 4 * MAX_VARLONG_SIZE + value.getBigNumerator().bitLength() / 8 + value.getBigDenominator().bitLength() / 8 + 2;
+    }
+
+    /**
+     * Writes a fraction as a zigzag varint numerator and varint denominator, or in BigInteger bytes if it is too large.
+     *
+     * @param out the buffer to write to, with at least maxFractionSize bytes left
+     * @param value the fraction to write
+     */
+    static void putFraction(ByteBuffer out, Fraction value) {
+        if (!value.isBig()) {
+            putVarLong(out, zigzag(value.getNumerator()));
+            putVarLong(out, value.getDenominator());
+            return;
+        }
+        byte[] numerator = value.getBigNumerator().toByteArray();
+        byte[] denominator = value.getBigDenominator().toByteArray();
+        putVarLong(out, 0);
+        putVarLong(out, 0);
+        putVarLong(out, numerator.length);
+        out.put(numerator);
+        putVarLong(out, denominator.length);
+        out.put(denominator);
+    }
+
+    /**
+     * Reads a fraction written by putFraction.
+     *
+     * @param in the buffer to read from
+     * @return the fraction
+     * @throws BufferUnderflowException if the buffer ends in the middle of the fraction
+     */
+    static Fraction getFraction(ByteBuffer in) {
+        long numerator = unzigzag(getVarLong(in));
+        long denominator = getVarLong(in);
+        if (denominator != 0) return Fraction.of(numerator, denominator);
+
+        byte[] bigNumerator = new byte[checkLength(in, getVarLong(in))];
+        in.get(bigNumerator);
+        byte[] bigDenominator = new byte[checkLength(in, getVarLong(in))];
+        in.get(bigDenominator);
+        return Fraction.of(new BigInteger(bigNumerator), new BigInteger(bigDenominator));
+    }
+
+    /**
+     * Skips a fraction written by putFraction without creating it.
+     *
+     * @param in the buffer to read from
+     * @throws BufferUnderflowException if the buffer ends in the middle of the fraction
+     */
+    static void skipFraction(ByteBuffer in) {
+        getVarLong(in);
+        if (getVarLong(in) == 0) {
+            skip(in, getVarLong(in));
+            skip(in, getVarLong(in));
+        }
+    }
+
+    /**
+     * Skips a number of bytes.
+     *
+     * @param in the buffer
+     * @param length the number of bytes to skip
+     * @throws BufferUnderflowException if the buffer has fewer bytes left
+     */
+    static void skip(ByteBuffer in, long length) {
+        in.position(in.position() + checkLength(in, length));
+    }
+
+    /**
+     * Checks that a length read from a file is not more than the bytes left in the buffer.
+     *
+     * @param in the buffer
+     * @param length the length read from the file
+     * @return the length
+     * @throws BufferUnderflowException if the buffer has fewer bytes left
+     */
+    static int checkLength(ByteBuffer in, long length) {
+        if (length < 0 || length > in.remaining()) throw new BufferUnderflowException();
+        return (int)length;
+    }
+}
@@ -0,0 +1,91 @@
+/** 
+* The result of calculating one equation in a batch, either the calculated vector or the error it caused
+*/
+class CalculationResult {
+    private final String equation;
+    private final vector value;
+    private final String error;
+
+    /**
+     * @param equation the equation that was calculated
+     * @param value the calculated vector, or null if the calculation failed
+     * @param error the error message, or null if the calculation succeeded
+     */
+    private CalculationResult(String equation, vector value, String error) {
+        this.equation = equation;
+        this.value = value;
+        this.error = error;
+    }
+
+    /**
+     * Creates the result of a successful calculation.
+     *
+     * @param equation the equation that was calculated
+     * @param value the calculated vector
+     * @return a successful result
+     */
+    public static CalculationResult success(String equation, vector value) {
+        return new CalculationResult(equation, value, null);
+    }
+
+    /**
+     * Creates the result of a failed calculation.
+     *
+     * @param equation the equation that was calculated
+     * @param error the error message
+     * @return a failed result
+     */
+    public static CalculationResult failure(String equation, String error) {
+        return new CalculationResult(equation, null, error);
+    }
+
+    /**
+     * Returns the equation that was calculated.
+     *
+     * @return the equation
+     */
+    public String getEquation() {
+        return equation;
+    }
+
+    /**
+     * Checks if the equation was calculated without an error.
+     *
+     * @return boolean - true if the calculation succeeded, false otherwise
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * Returns the calculated vector, a scalar result is a 1D vector.
+     *
+     * @return the calculated vector, or null if the calculation failed
+     */
+    public vector getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the error message of a failed calculation.
+     *
+     * @return the error message, or null if the calculation succeeded
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Converts the result to a string in the same format as VectorCalculator.calculate,
+     * or "Error: " followed by the message if the calculation failed.
+     *
+     * @return the result as a string
+     */
+    @Override
+    public String toString() {
+        if (isSuccess()) {
+            return VectorCalculator.format(value);
+        }
+        return "Error: " + error;
+    }
+}
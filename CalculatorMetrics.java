@@ -0,0 +1,197 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+* Counts and times the phases of calculating an equation. Every phase has a histogram of its latencies
+* with one bucket per power of two nanoseconds, so recording a latency is a few atomic additions.
+* Timing is on unless the system property vectorcalculator.metrics is false, and can be switched over JMX.
+*/
+public class CalculatorMetrics implements CalculatorMetricsMBean {
+
+    enum phase {
+        normalize,
+        tokenize,
+        parse,
+        evaluate,
+        format
+    }
+
+    // bucket i holds the latencies below 2^i nanoseconds that don't fit in bucket i - 1
+    private static final int BUCKETS = Long.SIZE + 1;
+    private static final String OBJECT_NAME = "vectorcalculator:type=CalculatorMetrics";
+
+    private static volatile boolean enabled = !"false".equals(System.getProperty("vectorcalculator.metrics"));
+    private static final PhaseStats[] stats = new PhaseStats[phase.values().length];
+    private static final CalculatorMetrics instance = new CalculatorMetrics();
+
+    static {
+        for (phase p : phase.values()) {
+            stats[p.ordinal()] = new PhaseStats();
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(instance, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            // already registered by another copy of the class, the metrics still work without JMX
+        }
+    }
+
+    /**
+    * The count, total, maximum and histogram of the latencies of one phase
+    */
+    private static final class PhaseStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        /**
+         * @param nanos the latency to add
+         */
+        void add(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(nanos));
+        }
+
+        /**
+         * @param percentile the percentile between 0 and 100
+         * @return the upper bound of the bucket holding the percentile in nanoseconds
+         */
+        long percentile(double percentile) {
+            long total = count.sum();
+            if (total == 0) return 0;
+            long target = (long)Math.ceil(total * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= target) return i == 0 ? 0 : 1L << Math.min(i, Long.SIZE - 2);
+            }
+            return maxNanos.get();
+        }
+
+        /**
+         * Sets the counters and histogram back to 0.
+         */
+        void reset() {
+            count.reset();
+            totalNanos.reset();
+            maxNanos.set(0);
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets.set(i, 0);
+            }
+        }
+    }
+
+    /**
+     * Only the single instance published over JMX is created.
+     */
+    private CalculatorMetrics() {}
+
+    /**
+     * Returns the metrics that are published over JMX.
+     *
+     * @return the single instance of the metrics
+     */
+    public static CalculatorMetrics getInstance() {
+        return instance;
+    }
+
+    /**
+     * Starts timing a phase.
+     *
+     * @return the current time in nanoseconds, or 0 if timing is turned off
+     */
+    static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the latency of a phase that started at the given time.
+     * The returned time can be used as the start of the next phase.
+     *
+     * @param p the phase that ended
+     * @param start the time returned by start, or by record for the previous phase
+     * @return the current time in nanoseconds, or 0 if timing is turned off
+     */
+    static long record(phase p, long start) {
+        if (start == 0 || !enabled) return 0;
+        long end = System.nanoTime();
+        stats[p.ordinal()].add(Math.max(0, end - start));
+        return end;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        CalculatorMetrics.enabled = enabled;
+    }
+
+    @Override
+    public String[] getSummary() {
+        String[] summary = new String[stats.length];
+        for (phase p : phase.values()) {
+            String name = p.name();
+            summary[p.ordinal()] = String.format("%s: count=%d, mean=%.3fus, p50<=%.3fus, p99<=%.3fus, max=%.3fus",
+                    name, getCount(name), getMeanMicros(name), getPercentileMicros(name, 50), getPercentileMicros(name, 99), getMaxMicros(name));
+        }
+        return summary;
+    }
+
+    @Override
+    public long getCount(String phaseName) {
+        return statsOf(phaseName).count.sum();
+    }
+
+    @Override
+    public double getMeanMicros(String phaseName) {
+        PhaseStats phaseStats = statsOf(phaseName);
+        long count = phaseStats.count.sum();
+        return count == 0 ? 0 : phaseStats.totalNanos.sum() / 1e3 / count;
+    }
+
+    @Override
+    public double getPercentileMicros(String phaseName, double percentile) {
+        if (percentile < 0 || percentile > 100) throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        return statsOf(phaseName).percentile(percentile) / 1e3;
+    }
+
+    @Override
+    public double getMaxMicros(String phaseName) {
+        return statsOf(phaseName).maxNanos.get() / 1e3;
+    }
+
+    @Override
+    public void reset() {
+        for (PhaseStats phaseStats : stats) {
+            phaseStats.reset();
+        }
+    }
+
+    /**
+     * @param phaseName the name of the phase
+     * @return the statistics of the phase
+     * @throws IllegalArgumentException if there is no phase with the name
+     */
+    private static PhaseStats statsOf(String phaseName) {
+        return stats[phase.valueOf(phaseName).ordinal()];
+    }
+
+    /**
+     * Converts the metrics to a string, one line per phase.
+     *
+     * @return the summary of every phase as a string
+     */
+    @Override
+    public String toString() {
+        return String.join("\n", getSummary());
+    }
+}
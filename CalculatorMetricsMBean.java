@@ -0,0 +1,53 @@
+/**
+* The management interface of CalculatorMetrics, published to the platform MBean server
+* as "vectorcalculator:type=CalculatorMetrics". Phases are named normalize, tokenize, parse, evaluate and format.
+*/
+public interface CalculatorMetricsMBean {
+
+    /**
+     * @return boolean - true if the phases of calculations are being timed, false otherwise
+     */
+    boolean isEnabled();
+
+    /**
+     * Turns the timing of the phases on or off.
+     *
+     * @param enabled true to time the phases, false to turn the timing off entirely
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * @return one line for every phase with its count, mean, 50th and 99th percentile and maximum latency
+     */
+    String[] getSummary();
+
+    /**
+     * @param phase the name of the phase
+     * @return the number of times the phase was timed
+     */
+    long getCount(String phase);
+
+    /**
+     * @param phase the name of the phase
+     * @return the mean latency of the phase in microseconds
+     */
+    double getMeanMicros(String phase);
+
+    /**
+     * @param phase the name of the phase
+     * @param percentile the percentile between 0 and 100
+     * @return the upper bound of the histogram bucket holding the percentile, in microseconds
+     */
+    double getPercentileMicros(String phase, double percentile);
+
+    /**
+     * @param phase the name of the phase
+     * @return the largest latency of the phase in microseconds
+     */
+    double getMaxMicros(String phase);
+
+    /**
+     * Sets all counters and histograms back to 0.
+     */
+    void reset();
+}
@@ -0,0 +1,316 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+* Serves the calculator over HTTP, so many calculations can share one running JVM.
+* GET or POST /calculate calculates one equation, given as the "equation" query parameter or as the request body.
+* POST /batch calculates every line of the request body. Both answer with JSON holding the results and the time taken.
+*/
+class CalculatorServer {
+    // requests with a larger body are refused
+    private static final int MAX_BODY_SIZE = 1024 * 1024;
+    // how long a request waits for one of the running requests to finish before it is refused as busy
+    private static final long ACQUIRE_TIMEOUT_MILLIS = 100;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+
+    /**
+     * @param server the HTTP server, not started yet
+     * @param executor the executor that runs the requests
+     * @param maxConcurrent the number of requests that are calculated at the same time
+     */
+    private CalculatorServer(HttpServer server, ExecutorService executor, int maxConcurrent) {
+        this.server = server;
+        this.executor = executor;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Starts the server on the given port of the loopback address, so only programs on the same machine can reach it.
+     *
+     * @param port the port to listen on, 0 to pick a free port
+     * @param maxConcurrent the number of requests that are calculated at the same time, others wait or are refused with 503
+     * @return the running server
+     * @throws IOException if the server can't listen on the port
+     * @throws IllegalArgumentException if maxConcurrent is less than 1
+     */
+    public static CalculatorServer start(int port, int maxConcurrent) throws IOException {
+        return start(InetAddress.getLoopbackAddress(), port, maxConcurrent);
+    }
+
+    /**
+     * Starts the server on the given address and port. Each request runs on its own virtual thread when the JVM
+     * supports them (Java 21 and later), and on its own pooled platform thread otherwise.
+     *
+     * @param address the address to listen on, the server can be reached by anyone who can reach this address
+     * @param port the port to listen on, 0 to pick a free port
+     * @param maxConcurrent the number of requests that are calculated at the same time, others wait or are refused with 503
+     * @return the running server
+     * @throws IOException if the server can't listen on the port
+     * @throws IllegalArgumentException if maxConcurrent is less than 1
+     */
+    public static CalculatorServer start(InetAddress address, int port, int maxConcurrent) throws IOException {
+        if (maxConcurrent < 1) throw new IllegalArgumentException("Server needs at least 1 concurrent request");
+
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress(address, port), 0);
+        CalculatorServer calculatorServer = new CalculatorServer(httpServer, newExecutor(), maxConcurrent);
+        httpServer.createContext("/calculate", calculatorServer.limited(calculatorServer::handleCalculate));
+        httpServer.createContext("/batch", calculatorServer.limited(calculatorServer::handleBatch));
+        httpServer.setExecutor(calculatorServer.executor);
+        httpServer.start();
+        return calculatorServer;
+    }
+
+    /**
+     * Returns the address the server listens on.
+     *
+     * @return the address
+     */
+    public InetAddress getAddress() {
+        return server.getAddress().getAddress();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return the port number
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests, waits up to a second for running requests to finish and stops the threads.
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    /**
+     * Creates an executor that starts a virtual thread per task. Virtual threads need Java 21, so the method is
+     * looked up at runtime and a cached pool of platform threads is used when it doesn't exist.
+     * Neither executor limits or queues the requests, the permits do, so requests over the limit are refused with 503.
+     *
+     * @return the executor for the requests
+     */
+    private static ExecutorService newExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService)factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Wraps a handler so only a limited number of requests run at the same time.
+     * A request that can't start in time is answered with 503, and an unexpected error with 500
+     * unless the handler already started its response.
+     *
+     * @param handler the handler of the endpoint
+     * @return the handler with the concurrency limit
+     */
+    private HttpHandler limited(HttpHandler handler) {
+        return exchange -> {
+            try (exchange) {
+                boolean acquired;
+                try {
+                    acquired = permits.tryAcquire(ACQUIRE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    acquired = false;
+                }
+                if (!acquired) {
+                    sendJson(exchange, 503, "{\"error\":\"Server is busy\"}");
+                    return;
+                }
+
+                try {
+                    handler.handle(exchange);
+                } catch (RuntimeException e) {
+                    // the response code is -1 until the headers are sent, after that the exchange is only closed
+                    if (exchange.getResponseCode() == -1) sendJson(exchange, 500, "{\"error\":" + jsonString(String.valueOf(e.getMessage())) + "}");
+                } finally {
+                    permits.release();
+                }
+            }
+        };
+    }
+
+    /**
+     * Calculates a single equation from the "equation" query parameter or from the request body.
+     *
+     * @param exchange the request and response
+     * @throws IOException if the request can't be read or the response can't be written
+     */
+    private void handleCalculate(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String equation;
+        if (method.equals("GET")) {
+            equation = queryParameter(exchange.getRequestURI().getRawQuery(), "equation");
+        }
+        else if (method.equals("POST")) {
+            equation = readBody(exchange);
+        }
+        else {
+            sendJson(exchange, 405, "{\"error\":\"Use GET or POST\"}");
+            return;
+        }
+
+        if (equation == null && method.equals("POST")) {
+            sendJson(exchange, 413, "{\"error\":\"Request body is larger than " + MAX_BODY_SIZE + " bytes\"}");
+            return;
+        }
+        if (equation == null) {
+            sendJson(exchange, 400, "{\"error\":\"Missing equation\"}");
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        CalculationResult result = VectorCalculator.tryCalculate(equation.strip());
+        long elapsedMicros = (System.nanoTime() - startTime) / 1000;
+
+        String json = "{" + resultFields(result) + ",\"timeMicros\":" + elapsedMicros + "}";
+        sendJson(exchange, result.isSuccess() ? 200 : 400, json);
+    }
+
+    /**
+     * Calculates every non-blank line of the request body in parallel and answers with the results in order.
+     *
+     * @param exchange the request and response
+     * @throws IOException if the request can't be read or the response can't be written
+     */
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            sendJson(exchange, 405, "{\"error\":\"Use POST\"}");
+            return;
+        }
+        String body = readBody(exchange);
+        if (body == null) {
+            sendJson(exchange, 413, "{\"error\":\"Request body is larger than " + MAX_BODY_SIZE + " bytes\"}");
+            return;
+        }
+
+        List<String> equations = new ArrayList<>();
+        for (String line : body.split("\\R")) {
+            if (!line.isBlank()) equations.add(line.strip());
+        }
+
+        long startTime = System.nanoTime();
+        List<CalculationResult> results = VectorCalculator.calculateAll(equations);
+        long elapsedMicros = (System.nanoTime() - startTime) / 1000;
+
+        StringBuilder json = new StringBuilder("{\"results\":[");
+        for (int i = 0; i < results.size(); i++) {
+            if (i > 0) json.append(',');
+            json.append('{').append(resultFields(results.get(i))).append('}');
+        }
+        json.append("],\"timeMicros\":").append(elapsedMicros).append('}');
+        sendJson(exchange, 200, json.toString());
+    }
+
+    /**
+     * Converts a result to JSON fields: the equation and either the result or the error.
+     *
+     * @param result the result of a calculation
+     * @return the JSON fields without the surrounding braces
+     */
+    private static String resultFields(CalculationResult result) {
+        String fields = "\"equation\":" + jsonString(result.getEquation());
+        if (result.isSuccess()) {
+            return fields + ",\"result\":" + jsonString(VectorCalculator.format(result.getValue()));
+        }
+        return fields + ",\"error\":" + jsonString(result.getError());
+    }
+
+    /**
+     * Reads the request body as UTF-8 text.
+     *
+     * @param exchange the request
+     * @return the body, or null if it is larger than the allowed size
+     * @throws IOException if the body can't be read
+     */
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            byte[] bytes = body.readNBytes(MAX_BODY_SIZE + 1);
+            if (bytes.length > MAX_BODY_SIZE) return null;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Finds a parameter in a URL query string like "equation=%5B1%2C%202%5D&other=1".
+     *
+     * @param rawQuery the query string, still URL encoded, or null if there is none
+     * @param name the name of the parameter
+     * @return the decoded value of the parameter, or null if it is not in the query
+     */
+    private static String queryParameter(String rawQuery, String name) {
+        if (rawQuery == null) return null;
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0 && pair.substring(0, equals).equals(name)) {
+                return URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Writes a JSON response.
+     *
+     * @param exchange the request and response
+     * @param status the HTTP status code
+     * @param json the body of the response
+     * @throws IOException if the response can't be written
+     */
+    private static void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+    }
+
+    /**
+     * Converts text to a quoted JSON string, escaping quotes, backslashes and control characters.
+     *
+     * @param text the text to convert
+     * @return the text as a JSON string
+     */
+    static String jsonString(String text) {
+        StringBuilder json = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char current = text.charAt(i);
+            if (current == '"' || current == '\\') {
+                json.append('\\').append(current);
+            }
+            else if (current < 0x20) {
+                json.append(String.format("\\u%04x", (int)current));
+            }
+            else {
+                json.append(current);
+            }
+        }
+        return json.append('"').toString();
+    }
+}
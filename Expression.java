@@ -0,0 +1,335 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+* A node of a parsed vector equation. Every node evaluates to a vector, scalars are 1D vectors.
+* Nodes are equal if they have the same structure and values, with the children compared by reference.
+* The parser shares one node between equal parts of an equation, so a shared node is only calculated once.
+*/
+abstract class Expression {
+    // true if the node appears more than once in its equation, set by the parser
+    boolean shared;
+    // the values of a shared node once it is calculated
+    private vector sharedValue;
+    private ApproximateVector sharedApproximation;
+
+    enum Operator {
+        add,
+        subtract,
+        dotProduct,
+        crossProduct;
+
+        /**
+         * Applies this operation to two vectors.
+         *
+         * @param first the vector on the left of the operator
+         * @param second the vector on the right of the operator
+         * @return the result of the operation
+         * @throws IllegalAccessException if the vectors can't be used with this operation
+         */
+        vector apply(vector first, vector second) throws IllegalAccessException {
+            switch (this) {
+                case add:
+                    return first.add(second);
+                case subtract:
+                    return first.subtract(second);
+                case dotProduct:
+                    return first.dotProduct(second);
+                default:
+                    return first.crossProduct(second);
+            }
+        }
+
+        /**
+         * Applies this operation to two vectors of doubles.
+         *
+         * @param first the vector on the left of the operator
+         * @param second the vector on the right of the operator
+         * @return the result of the operation with its error bound
+         * @throws IllegalAccessException if the vectors can't be used with this operation
+         */
+        ApproximateVector apply(ApproximateVector first, ApproximateVector second) throws IllegalAccessException {
+            switch (this) {
+                case add:
+                    return first.add(second);
+                case subtract:
+                    return first.subtract(second);
+                case dotProduct:
+                    return first.dotProduct(second);
+                default:
+                    return first.crossProduct(second);
+            }
+        }
+    }
+
+    /**
+     * Calculates the value of this node.
+     *
+     * @return the resulting vector
+     * @throws IllegalAccessException if an operation is done on vectors that don't support it
+     */
+    abstract vector evaluate() throws IllegalAccessException;
+
+    /**
+     * Calculates the value of this node with doubles instead of fractions.
+     *
+     * @return the resulting vector with a bound on its rounding error
+     * @throws IllegalAccessException if an operation is done on vectors that don't support it
+     */
+    abstract ApproximateVector approximate() throws IllegalAccessException;
+
+    /**
+     * Calculates the value of this node, or returns it if this node is shared and was already calculated.
+     * Parent nodes use this instead of evaluate.
+     *
+     * @return the resulting vector
+     * @throws IllegalAccessException if an operation is done on vectors that don't support it
+     */
+    final vector value() throws IllegalAccessException {
+        if (!shared) return evaluate();
+        if (sharedValue == null) sharedValue = evaluate();
+        return sharedValue;
+    }
+
+    /**
+     * Calculates the value of this node with doubles, or returns it if this node is shared and was already calculated.
+     * Parent nodes use this instead of approximate. The result of a node that is not shared belongs to the parent,
+     * which can write its own result into the same arrays.
+     *
+     * @return the resulting vector with a bound on its rounding error
+     * @throws IllegalAccessException if an operation is done on vectors that don't support it
+     */
+    final ApproximateVector approximateValue() throws IllegalAccessException {
+        if (!shared) return approximate();
+        if (sharedApproximation == null) sharedApproximation = approximate();
+        return sharedApproximation;
+    }
+
+    /**
+    * A vector written in square brackets: [x, y, z]
+    */
+    static final class VectorLiteral extends Expression {
+        final vector value;
+        private final int hash;
+
+        VectorLiteral(vector value) {
+            this.value = value;
+            this.hash = Arrays.hashCode(value.getComponents());
+        }
+
+        @Override
+        vector evaluate() {
+            return value;
+        }
+
+        @Override
+        ApproximateVector approximate() {
+            return ApproximateVector.fromVector(value);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (!(other instanceof VectorLiteral)) return false;
+            VectorLiteral literal = (VectorLiteral) other;
+            return hash == literal.hash && Arrays.equals(value.getComponents(), literal.value.getComponents());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+    * A number written without square brackets, treated as a 1D vector
+    */
+    static final class ScalarLiteral extends Expression {
+        final Fraction value;
+
+        ScalarLiteral(Fraction value) {
+            this.value = value;
+        }
+
+        @Override
+        vector evaluate() {
+            return new vector(value);
+        }
+
+        @Override
+        ApproximateVector approximate() {
+            return ApproximateVector.fromScalar(value);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof ScalarLiteral && value.equals(((ScalarLiteral) other).value);
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode();
+        }
+    }
+
+    /**
+    * A scalar multiplying a vector or a bracket: 5[6, 4] or 5([6, 4] + [4, 4])
+    */
+    static final class Scaled extends Expression {
+        final Fraction scalar;
+        final Expression operand;
+        private final int hash;
+
+        Scaled(Fraction scalar, Expression operand) {
+            this.scalar = scalar;
+            this.operand = operand;
+            this.hash = 31 * scalar.hashCode() + operand.hashCode();
+        }
+
+        @Override
+        vector evaluate() throws IllegalAccessException {
+            return operand.value().scalarMultiply(scalar);
+        }
+
+        @Override
+        ApproximateVector approximate() throws IllegalAccessException {
+            ApproximateVector value = operand.approximateValue();
+            return operand.shared ? value.scalarMultiply(scalar) : value.scalarMultiplyInPlace(scalar);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Scaled)) return false;
+            Scaled scaled = (Scaled) other;
+            return operand == scaled.operand && scalar.equals(scaled.scalar);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+    * An operation between two expressions: a + b, a - b, a * b or a x b
+    */
+    static final class BinaryOperation extends Expression {
+        final Operator operator;
+        final Expression left;
+        final Expression right;
+        private final int hash;
+
+        BinaryOperation(Operator operator, Expression left, Expression right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+            this.hash = Objects.hash(operator, left, right);
+        }
+
+        @Override
+        vector evaluate() throws IllegalAccessException {
+            return operator.apply(left.value(), right.value());
+        }
+
+        @Override
+        ApproximateVector approximate() throws IllegalAccessException {
+            ApproximateVector first = left.approximateValue();
+            ApproximateVector second = right.approximateValue();
+            if (!left.shared && operator == Operator.add) return first.combineInPlace(second, 1);
+            if (!left.shared && operator == Operator.subtract) return first.combineInPlace(second, -1);
+            return operator.apply(first, second);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof BinaryOperation)) return false;
+            BinaryOperation operation = (BinaryOperation) other;
+            return operator == operation.operator && left == operation.left && right == operation.right;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+    * A chain of three or more additions and subtractions: a + b - c + d
+    * The components are summed over a common denominator and only reduced once at the end.
+    */
+    static final class Sum extends Expression {
+        final Expression[] terms;
+        // true for the terms that are subtracted, the first term is always added
+        final boolean[] subtracted;
+        private final int hash;
+
+        Sum(List<Expression> terms, List<Boolean> subtracted) {
+            this.terms = terms.toArray(new Expression[0]);
+            this.subtracted = new boolean[subtracted.size()];
+            for (int i = 0; i < this.subtracted.length; i++) {
+                this.subtracted[i] = subtracted.get(i);
+            }
+            this.hash = 31 * Arrays.hashCode(this.terms) + Arrays.hashCode(this.subtracted);
+        }
+
+        @Override
+        vector evaluate() throws IllegalAccessException {
+            vector first = terms[0].value();
+            FractionAccumulator[] sums = new FractionAccumulator[first.getDimension()];
+            for (int i = 0; i < sums.length; i++) {
+                sums[i] = new FractionAccumulator();
+                sums[i].add(first.getComponent(i));
+            }
+
+            for (int term = 1; term < terms.length; term++) {
+                vector value = terms[term].value();
+                if (!first.isDimensionSame(value)) throw new IllegalAccessException("Vectors are not the Same Dimensions");
+                for (int i = 0; i < sums.length; i++) {
+                    if (subtracted[term]) {
+                        sums[i].subtract(value.getComponent(i));
+                    }
+                    else {
+                        sums[i].add(value.getComponent(i));
+                    }
+                }
+            }
+
+            Fraction[] components = new Fraction[sums.length];
+            for (int i = 0; i < components.length; i++) {
+                components[i] = sums[i].toFraction();
+            }
+            return new vector(components);
+        }
+
+        @Override
+        ApproximateVector approximate() throws IllegalAccessException {
+            ApproximateVector result = terms[0].approximateValue();
+            // the first term's result is copied once if it is shared, every other step reuses its arrays
+            boolean owned = !terms[0].shared;
+            for (int term = 1; term < terms.length; term++) {
+                int sign = subtracted[term] ? -1 : 1;
+                ApproximateVector value = terms[term].approximateValue();
+                result = owned ? result.combineInPlace(value, sign) : (sign < 0 ? result.subtract(value) : result.add(value));
+                owned = true;
+            }
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Sum)) return false;
+            Sum sum = (Sum) other;
+            if (terms.length != sum.terms.length || !Arrays.equals(subtracted, sum.subtracted)) return false;
+            for (int i = 0; i < terms.length; i++) {
+                if (terms[i] != sum.terms[i]) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
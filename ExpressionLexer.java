@@ -0,0 +1,134 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+* Splits a vector equation into tokens in a single pass
+*/
+class ExpressionLexer {
+
+    enum tokenType {
+        number,
+        minus,
+        plus,
+        dot,
+        cross,
+        slash,
+        comma,
+        openVector,
+        closeVector,
+        openBracket,
+        closeBracket,
+        end
+    }
+
+    /**
+    * A single token of a vector equation
+    */
+    static final class Token {
+        final tokenType type;
+        final int position;
+        final int end;
+        final long value;
+        final boolean attached;
+
+        /**
+         * @param type the type of the token
+         * @param position the index of the first character of the token in the equation
+         * @param end the index after the last character of the token in the equation
+         * @param value the value of a number token, 0 for every other token
+         * @param attached true if a minus token is directly followed by a digit, meaning it can be a negative sign
+         */
+        Token(tokenType type, int position, int end, long value, boolean attached) {
+            this.type = type;
+            this.position = position;
+            this.end = end;
+            this.value = value;
+            this.attached = attached;
+        }
+    }
+
+    /**
+     * Splits the equation into tokens. The last token is always of type end.
+     *
+     * @param equation the equation to split
+     * @return the list of tokens in the equation
+     * @throws IllegalAccessException if the equation contains an unknown character or a number that is too large
+     */
+    static List<Token> tokenize(CharSequence equation) throws IllegalAccessException {
+        List<Token> tokens = new ArrayList<>();
+        int length = equation.length();
+        int index = 0;
+
+        while (index < length) {
+            char current = equation.charAt(index);
+
+            if (Character.isWhitespace(current)) {
+                index++;
+            }
+            else if (isDigit(current)) {
+                int start = index;
+                long value = 0;
+                while (index < length && isDigit(equation.charAt(index))) {
+                    try {
+                        value = Math.addExact(Math.multiplyExact(value, 10), equation.charAt(index) - '0');
+                    } catch (ArithmeticException e) {
+                        throw new IllegalAccessException("Number is too large");
+                    }
+                    index++;
+                }
+                tokens.add(new Token(tokenType.number, start, index, value, false));
+            }
+            else {
+                boolean attached = current == '-' && index + 1 < length && isDigit(equation.charAt(index + 1));
+                tokens.add(new Token(symbolType(current), index, index + 1, 0, attached));
+                index++;
+            }
+        }
+        tokens.add(new Token(tokenType.end, length, length, 0, false));
+        return tokens;
+    }
+
+    /**
+     * Returns the token type of a single character symbol.
+     *
+     * @param symbol the character to convert
+     * @return the type of token the symbol represents
+     * @throws IllegalAccessException if the symbol is not part of the equation format
+     */
+    private static tokenType symbolType(char symbol) throws IllegalAccessException {
+        switch (symbol) {
+            case '-':
+                return tokenType.minus;
+            case '+':
+                return tokenType.plus;
+            case '*':
+                return tokenType.dot;
+            case 'x':
+                return tokenType.cross;
+            case '/':
+                return tokenType.slash;
+            case ',':
+                return tokenType.comma;
+            case '[':
+                return tokenType.openVector;
+            case ']':
+                return tokenType.closeVector;
+            case '(':
+                return tokenType.openBracket;
+            case ')':
+                return tokenType.closeBracket;
+            default:
+                throw new IllegalAccessException("Unexpected character '" + symbol + "'");
+        }
+    }
+
+    /**
+     * Checks if a character is an ASCII digit.
+     *
+     * @param character the character to check
+     * @return boolean - true if the character is between 0 and 9, false otherwise
+     */
+    private static boolean isDigit(char character) {
+        return character >= '0' && character <= '9';
+    }
+}
@@ -0,0 +1,394 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+* Parses a vector equation into an Expression tree using recursive descent.
+* The order of operations is scalar multiplication, Cross, Dot, then Addition or Subtraction (which ever comes first)
+* Equal parts of an equation become one shared node, like 5/7[6, 12, 9] and 10/14[6, 12, 9], so they are only calculated once.
+* Scalars are folded while the tree is built, so every vector is multiplied by at most one scalar:
+* nested scalars are multiplied together, scalars are taken out of dot and cross products (2[a] x 3[b] is 6([a] x [b])),
+* and out of sums whose terms all have the same scalar (2[a] + 2[b] is 2([a] + [b])),
+* and a scalar in front of a sum of scaled terms is multiplied into the terms (2(3[a] + 5[b]) is 6[a] + 10[b]).
+*/
+class ExpressionParser {
+    private final List<ExpressionLexer.Token> tokens;
+    private int current;
+    // every node created for the equation, to find an equal node that can be shared
+    private final Map<Expression, Expression> nodes = new HashMap<>();
+
+    private static final Fraction ONE = Fraction.of(1);
+
+    /**
+     * @param tokens the tokens of the equation, ending with an end token
+     */
+    private ExpressionParser(List<ExpressionLexer.Token> tokens) {
+        this.tokens = tokens;
+        this.current = 0;
+    }
+
+    /**
+     * Parses an equation into an Expression tree.
+     *
+     * @param equation the equation to parse
+     * @return the root node of the parsed equation
+     * @throws IllegalAccessException if the equation format is incorrect
+     */
+    static Expression parse(CharSequence equation) throws IllegalAccessException {
+        long start = CalculatorMetrics.start();
+        List<ExpressionLexer.Token> tokens = ExpressionLexer.tokenize(equation);
+        start = CalculatorMetrics.record(CalculatorMetrics.phase.tokenize, start);
+
+        ExpressionParser parser = new ExpressionParser(tokens);
+        Expression root = parser.parseAddition();
+        if (parser.peek().type != ExpressionLexer.tokenType.end) {
+            throw new IllegalAccessException("Operator not found");
+        }
+        CalculatorMetrics.record(CalculatorMetrics.phase.parse, start);
+        return root;
+    }
+
+    /**
+     * Parses additions and subtractions, which are calculated from left to right.
+     * A chain of three or more terms becomes a single Sum node, so it is only reduced once.
+     * addition := dot (('+' | '-') dot)*
+     *
+     * @return the parsed node
+     * @throws IllegalAccessException if the equation format is incorrect
+     */
+    private Expression parseAddition() throws IllegalAccessException {
+        Expression first = parseDot();
+        if (peek().type != ExpressionLexer.tokenType.plus && peek().type != ExpressionLexer.tokenType.minus) {
+            return first;
+        }
+
+        List<Expression> terms = new ArrayList<>();
+        List<Boolean> subtracted = new ArrayList<>();
+        terms.add(first);
+        subtracted.add(false);
+        while (true) {
+            if (accept(ExpressionLexer.tokenType.plus)) {
+                subtracted.add(false);
+            }
+            else if (accept(ExpressionLexer.tokenType.minus)) {
+                subtracted.add(true);
+            }
+            else {
+                break;
+            }
+            terms.add(parseDot());
+        }
+
+        if (terms.size() == 2) {
+            Expression.Operator operator = subtracted.get(1) ? Expression.Operator.subtract : Expression.Operator.add;
+            return operation(operator, first, terms.get(1));
+        }
+        return sum(terms, subtracted);
+    }
+
+    /**
+     * Parses dot products.
+     * dot := cross ('*' cross)*
+     *
+     * @return the parsed node
+     * @throws IllegalAccessException if the equation format is incorrect
+     */
+    private Expression parseDot() throws IllegalAccessException {
+        Expression left = parseCross();
+        while (accept(ExpressionLexer.tokenType.dot)) {
+            left = operation(Expression.Operator.dotProduct, left, parseCross());
+        }
+        return left;
+    }
+
+    /**
+     * Parses cross products.
+     * cross := operand ('x' operand)*
+     *
+     * @return the parsed node
+     * @throws IllegalAccessException if the equation format is incorrect
+     */
+    private Expression parseCross() throws IllegalAccessException {
+        Expression left = parseOperand();
+        while (accept(ExpressionLexer.tokenType.cross)) {
+            left = operation(Expression.Operator.crossProduct, left, parseOperand());
+        }
+        return left;
+    }
+
+    /**
+     * Parses a vector, a bracket or a scalar, each with an optional scalar in front.
+     * operand := fraction? ('[' fraction (',' fraction)* ']' | '(' addition ')') | fraction
+     *
+     * @return the parsed node
+     * @throws IllegalAccessException if the equation format is incorrect
+     */
+    private Expression parseOperand() throws IllegalAccessException {
+        Fraction scalar = null;
+        if (isFractionStart()) {
+            scalar = parseFraction();
+        }
+
+        Expression operand;
+        if (accept(ExpressionLexer.tokenType.openVector)) {
+            operand = intern(new Expression.VectorLiteral(parseVectorBody()));
+        }
+        else if (accept(ExpressionLexer.tokenType.openBracket)) {
+            operand = parseAddition();
+            expect(ExpressionLexer.tokenType.closeBracket, "Missing closing bracket");
+        }
+        else if (scalar != null) {
+            return intern(new Expression.ScalarLiteral(scalar));
+        }
+        else {
+            throw new IllegalAccessException("Vector format is incorrect");
+        }
+
+        if (scalar == null) {
+            return operand;
+        }
+        return scale(scalar, operand);
+    }
+
+    /**
+     * Creates the node of a scalar multiplying an expression, folding the scalar into the expression when possible.
+     * Scalars in front of a scaled expression or a scalar are multiplied together, and a scalar in front
+     * of a sum of scaled terms is multiplied into the terms, so no extra multiplication is added.
+     *
+     * @param scalar the scalar
+     * @param operand the expression the scalar multiplies
+     * @return the folded node
+     */
+    private Expression scale(Fraction scalar, Expression operand) {
+        if (scalar.equals(ONE)) return operand;
+        if (operand instanceof Expression.Scaled) {
+            Expression.Scaled scaled = (Expression.Scaled) operand;
+            return scale(scalar.multiply(scaled.scalar), scaled.operand);
+        }
+        if (operand instanceof Expression.ScalarLiteral) {
+            return intern(new Expression.ScalarLiteral(scalar.multiply(((Expression.ScalarLiteral) operand).value)));
+        }
+
+        if (operand instanceof Expression.BinaryOperation) {
+            Expression.BinaryOperation operation = (Expression.BinaryOperation) operand;
+            boolean linear = operation.operator == Expression.Operator.add || operation.operator == Expression.Operator.subtract;
+            if (linear && isScaled(operation.left) && isScaled(operation.right)) {
+                return intern(new Expression.BinaryOperation(operation.operator, scale(scalar, operation.left), scale(scalar, operation.right)));
+            }
+        }
+        else if (operand instanceof Expression.Sum) {
+            Expression.Sum sum = (Expression.Sum) operand;
+            boolean allScaled = true;
+            for (Expression term : sum.terms) {
+                allScaled &= isScaled(term);
+            }
+            if (allScaled) {
+                List<Expression> terms = new ArrayList<>(sum.terms.length);
+                List<Boolean> subtracted = new ArrayList<>(sum.terms.length);
+                for (int i = 0; i < sum.terms.length; i++) {
+                    terms.add(scale(scalar, sum.terms[i]));
+                    subtracted.add(sum.subtracted[i]);
+                }
+                return intern(new Expression.Sum(terms, subtracted));
+            }
+        }
+        return intern(new Expression.Scaled(scalar, operand));
+    }
+
+    /**
+     * Creates the node of an operation, taking the scalars out of dot and cross products, and out of
+     * additions and subtractions when both sides have the same scalar.
+     *
+     * @param operator the operation
+     * @param left the expression on the left of the operator
+     * @param right the expression on the right of the operator
+     * @return the folded node
+     */
+    private Expression operation(Expression.Operator operator, Expression left, Expression right) {
+        Fraction leftScalar = scalarOf(left);
+        Fraction rightScalar = scalarOf(right);
+        boolean linear = operator == Expression.Operator.add || operator == Expression.Operator.subtract;
+        if (linear && !leftScalar.equals(rightScalar)) {
+            return intern(new Expression.BinaryOperation(operator, left, right));
+        }
+
+        Fraction scalar = linear ? leftScalar : leftScalar.multiply(rightScalar);
+        return scale(scalar, intern(new Expression.BinaryOperation(operator, unscaled(left), unscaled(right))));
+    }
+
+    /**
+     * Creates the node of a chain of additions and subtractions, taking the scalar out if every term has the same scalar.
+     *
+     * @param terms the terms of the chain
+     * @param subtracted true for the terms that are subtracted
+     * @return the folded node
+     */
+    private Expression sum(List<Expression> terms, List<Boolean> subtracted) {
+        Fraction scalar = scalarOf(terms.get(0));
+        for (Expression term : terms) {
+            if (!scalarOf(term).equals(scalar)) return intern(new Expression.Sum(terms, subtracted));
+        }
+
+        List<Expression> unscaledTerms = new ArrayList<>(terms.size());
+        for (Expression term : terms) {
+            unscaledTerms.add(unscaled(term));
+        }
+        return scale(scalar, intern(new Expression.Sum(unscaledTerms, subtracted)));
+    }
+
+    /**
+     * @param node a node of the equation
+     * @return boolean - true if the node is a scaled expression or a scalar, which a scalar can be multiplied into
+     */
+    private static boolean isScaled(Expression node) {
+        return node instanceof Expression.Scaled || node instanceof Expression.ScalarLiteral;
+    }
+
+    /**
+     * @param node a node of the equation
+     * @return the scalar in front of the node, 1 if it is not scaled
+     */
+    private static Fraction scalarOf(Expression node) {
+        return node instanceof Expression.Scaled ? ((Expression.Scaled) node).scalar : ONE;
+    }
+
+    /**
+     * @param node a node of the equation
+     * @return the node without the scalar in front of it
+     */
+    private static Expression unscaled(Expression node) {
+        return node instanceof Expression.Scaled ? ((Expression.Scaled) node).operand : node;
+    }
+
+    /**
+     * Returns the node of the equation equal to a new node, marking it as shared, or the new node if there is none yet.
+     * As the children of a node are already interned, equal parts of the equation always end up as the same node.
+     *
+     * @param node the new node
+     * @return the node to use in the tree
+     */
+    private Expression intern(Expression node) {
+        Expression existing = nodes.putIfAbsent(node, node);
+        if (existing == null) return node;
+        existing.shared = true;
+        return existing;
+    }
+
+    /**
+     * Parses the components of a vector after the opening square bracket, including the closing square bracket.
+     *
+     * @return the parsed vector
+     * @throws IllegalAccessException if the vector format is incorrect
+     */
+    private vector parseVectorBody() throws IllegalAccessException {
+        List<Fraction> components = new ArrayList<>(3);
+        components.add(parseFraction());
+        while (accept(ExpressionLexer.tokenType.comma)) {
+            components.add(parseFraction());
+        }
+        expect(ExpressionLexer.tokenType.closeVector, "Vector format is incorrect");
+        return new vector(components.toArray(new Fraction[0]));
+    }
+
+    /**
+     * Parses a fraction in whole (z), improper (y/z) or mixed (x y/z) form. Each number can be negative.
+     * fraction := integer (integer '/' integer | '/' integer)?
+     *
+     * @return the parsed fraction
+     * @throws IllegalAccessException if the fraction format is incorrect or the denominator is 0
+     */
+    private Fraction parseFraction() throws IllegalAccessException {
+        long first = parseInteger();
+        try {
+            if (accept(ExpressionLexer.tokenType.slash)) {
+                return Fraction.of(first, parseInteger());
+            }
+            if (isMixedNumerator()) {
+                long numerator = parseInteger();
+                expect(ExpressionLexer.tokenType.slash, "Invaild Fraction Format");
+                return Fraction.mixed(first, numerator, parseInteger());
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalAccessException(e.getMessage());
+        }
+        return Fraction.of(first);
+    }
+
+    /**
+     * Parses a number with an optional negative sign directly in front of it.
+     *
+     * @return the parsed number
+     * @throws IllegalAccessException if there is no number
+     */
+    private long parseInteger() throws IllegalAccessException {
+        boolean negative = peek().type == ExpressionLexer.tokenType.minus && peek().attached;
+        if (negative) current++;
+
+        ExpressionLexer.Token number = expect(ExpressionLexer.tokenType.number, "Invaild Fraction Format");
+        return negative ? -number.value : number.value;
+    }
+
+    /**
+     * Checks if the next tokens start a fraction, which is a number or a negative sign directly followed by a number.
+     *
+     * @return boolean - true if a fraction starts at the current token, false otherwise
+     */
+    private boolean isFractionStart() {
+        ExpressionLexer.Token next = peek();
+        return next.type == ExpressionLexer.tokenType.number
+                || (next.type == ExpressionLexer.tokenType.minus && next.attached);
+    }
+
+    /**
+     * Checks if the next tokens are the numerator of a mixed fraction, like the "2/3" in "1 2/3".
+     * The numerator must be separated from the whole number by whitespace, so "2-1/2" is a subtraction.
+     *
+     * @return boolean - true if the next tokens are a number followed by a "/" after whitespace, false otherwise
+     */
+    private boolean isMixedNumerator() {
+        int index = current;
+        if (tokens.get(index).position == tokens.get(index - 1).end) return false;
+        if (tokens.get(index).type == ExpressionLexer.tokenType.minus && tokens.get(index).attached) index++;
+        return tokens.get(index).type == ExpressionLexer.tokenType.number
+                && tokens.get(index + 1).type == ExpressionLexer.tokenType.slash;
+    }
+
+    /**
+     * Returns the current token without consuming it.
+     *
+     * @return the current token
+     */
+    private ExpressionLexer.Token peek() {
+        return tokens.get(current);
+    }
+
+    /**
+     * Consumes the current token if it has the given type.
+     *
+     * @param type the expected type of the token
+     * @return boolean - true if the token was consumed, false otherwise
+     */
+    private boolean accept(ExpressionLexer.tokenType type) {
+        if (peek().type == type) {
+            current++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Consumes the current token, which must have the given type.
+     *
+     * @param type the expected type of the token
+     * @param message the error message if the token has a different type
+     * @return the consumed token
+     * @throws IllegalAccessException if the current token has a different type
+     */
+    private ExpressionLexer.Token expect(ExpressionLexer.tokenType type, String message) throws IllegalAccessException {
+        ExpressionLexer.Token token = peek();
+        if (token.type != type) throw new IllegalAccessException(message);
+        current++;
+        return token;
+    }
+}
@@ -0,0 +1,191 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+* Calculates a file of equations, one per line, and writes the results to another file in the same order.
+* The input is memory-mapped a window at a time, so memory use does not grow with the size of the file.
+*/
+class FileEvaluator {
+    // the part of the input file that is mapped at once, a single line can't be longer than this
+    private static final int WINDOW_SIZE = 64 * 1024 * 1024;
+    // the number of lines that are calculated in parallel at once
+    private static final int BATCH_SIZE = 4096;
+    private static final int OUTPUT_BUFFER_SIZE = 1024 * 1024;
+    // the number of errors that are listed in the summary
+    private static final int MAX_REPORTED_ERRORS = 10;
+
+    private final FileChannel output;
+    private final ByteBuffer outputBuffer = ByteBuffer.allocateDirect(OUTPUT_BUFFER_SIZE);
+    private final List<String> batch = new ArrayList<>(BATCH_SIZE);
+    private final List<String> reportedErrors = new ArrayList<>();
+    private long lineNumber;
+    private long calculated;
+    private long failed;
+
+    /**
+     * @param output the channel the results are written to
+     */
+    private FileEvaluator(FileChannel output) {
+        this.output = output;
+    }
+
+    /**
+     * Calculates every line of the input file and writes the result of each line to the output file.
+     * A failed line is written as "Error: " followed by the message, and blank lines stay blank.
+     * Prints a summary of the number of calculated lines and errors at the end.
+     *
+     * @param inputFile the file of equations, one per line
+     * @param outputFile the file the results are written to, replaced if it exists
+     * @throws IOException if a file can't be read or written, or a line is longer than the mapped window
+     */
+    public static void evaluateFile(Path inputFile, Path outputFile) throws IOException {
+        long startTime = System.nanoTime();
+
+        try (FileChannel input = FileChannel.open(inputFile, StandardOpenOption.READ);
+             FileChannel output = FileChannel.open(outputFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            FileEvaluator evaluator = new FileEvaluator(output);
+            evaluator.readLines(input);
+            evaluator.flushBatch();
+            evaluator.flushOutput();
+            evaluator.printSummary(System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Maps the input a window at a time and collects every line into batches.
+     * A line cut off at the end of a window is read again at the start of the next window.
+     *
+     * @param input the channel of the input file
+     * @throws IOException if the file can't be read or a line is longer than the mapped window
+     */
+    private void readLines(FileChannel input) throws IOException {
+        long size = input.size();
+        long windowStart = 0;
+
+        while (windowStart < size) {
+            long windowLength = Math.min(WINDOW_SIZE, size - windowStart);
+            MappedByteBuffer window = input.map(FileChannel.MapMode.READ_ONLY, windowStart, windowLength);
+            boolean lastWindow = windowStart + windowLength == size;
+
+            int lineStart = 0;
+            for (int i = 0; i < windowLength; i++) {
+                if (window.get(i) == '\n') {
+                    addLine(window, lineStart, i);
+                    lineStart = i + 1;
+                }
+            }
+
+            if (lastWindow) {
+                if (lineStart < windowLength) addLine(window, lineStart, (int)windowLength);
+                return;
+            }
+            if (lineStart == 0) throw new IOException("Line " + (lineNumber + batch.size() + 1) + " is longer than " + WINDOW_SIZE + " bytes");
+            windowStart += lineStart;
+        }
+    }
+
+    /**
+     * Decodes a line of the mapped window and adds it to the current batch, calculating the batch once it is full.
+     *
+     * @param window the mapped part of the input file
+     * @param start the index of the first byte of the line
+     * @param end the index of the "\n" after the line, or the end of the window
+     * @throws IOException if the results can't be written
+     */
+    private void addLine(MappedByteBuffer window, int start, int end) throws IOException {
+        if (end > start && window.get(end - 1) == '\r') end--;
+
+        byte[] bytes = new byte[end - start];
+        window.get(start, bytes);
+        batch.add(new String(bytes, StandardCharsets.UTF_8));
+
+        if (batch.size() == BATCH_SIZE) flushBatch();
+    }
+
+    /**
+     * Calculates the lines of the current batch in parallel and writes their results in order.
+     * Blank lines are not calculated, they are written as blank lines.
+     *
+     * @throws IOException if the results can't be written
+     */
+    private void flushBatch() throws IOException {
+        List<String> equations = new ArrayList<>(batch.size());
+        for (String line : batch) {
+            if (!line.isBlank()) equations.add(line);
+        }
+        List<CalculationResult> results = VectorCalculator.calculateAll(equations);
+
+        int next = 0;
+        for (String line : batch) {
+            lineNumber++;
+            if (line.isBlank()) {
+                writeLine("");
+                continue;
+            }
+
+            CalculationResult result = results.get(next++);
+            calculated++;
+            if (!result.isSuccess()) {
+                failed++;
+                if (reportedErrors.size() < MAX_REPORTED_ERRORS) {
+                    reportedErrors.add("Line " + lineNumber + ": " + result.getError());
+                }
+            }
+            writeLine(result.toString());
+        }
+        batch.clear();
+    }
+
+    /**
+     * Writes a line to the output buffer, writing the buffer to the output file when it is full.
+     *
+     * @param line the line to write without the "\n"
+     * @throws IOException if the output file can't be written
+     */
+    private void writeLine(String line) throws IOException {
+        byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!outputBuffer.hasRemaining()) flushOutput();
+            int length = Math.min(outputBuffer.remaining(), bytes.length - offset);
+            outputBuffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    /**
+     * Writes the content of the output buffer to the output file.
+     *
+     * @throws IOException if the output file can't be written
+     */
+    private void flushOutput() throws IOException {
+        outputBuffer.flip();
+        while (outputBuffer.hasRemaining()) {
+            output.write(outputBuffer);
+        }
+        outputBuffer.clear();
+    }
+
+    /**
+     * Prints the number of lines, calculated equations and errors, and the first few errors.
+     *
+     * @param elapsedNanos the time it took to calculate the file in nanoseconds
+     */
+    private void printSummary(long elapsedNanos) {
+        System.out.println(String.format("Read %d lines, calculated %d equations in %.3f seconds", lineNumber, calculated, elapsedNanos / 1e9));
+        System.out.println(String.format("Succeeded: %d, Errors: %d", calculated - failed, failed));
+        for (String error : reportedErrors) {
+            System.out.println(error);
+        }
+        if (failed > reportedErrors.size()) {
+            System.out.println("... and " + (failed - reportedErrors.size()) + " more errors");
+        }
+    }
+}
@@ -1,14 +1,33 @@
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/** 
+* Represents an immutable fraction. Use Fraction.of to reuse the cached instances of small values.
+*/
 class Fraction {
-    private int numerator;
-    private int denominator;
+    // Small fractions (numerator -128 to 127, denominator 1 to 16) are interned like Integer.valueOf
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 127;
+    private static final int CACHE_MAX_DENOMINATOR = 16;
+    private static final Fraction[][] CACHE = buildCache();
+
+    // The value is kept in the long fields while it fits, otherwise in the BigInteger fields.
+    // A fraction is always reduced with a positive denominator, so only one of the two pairs is ever in use.
+    private final long numerator;
+    private final long denominator;
+    private final BigInteger bigNumerator;
+    private final BigInteger bigDenominator;
 
 
     /**
      * @param numerator Represents numerator - an integer.
      */
-    public Fraction(int numerator) {
-        this.numerator = numerator;
-        this.denominator = 1;
+    public Fraction(long numerator) {
+        this(numerator, 1);
     }
 
     /**
@@ -17,10 +36,26 @@ class Fraction {
      * @param denominator Represents denominator - an integer.
      * @throws IllegalArgumentException If denominator is 0
      */
-    public Fraction(int numerator, int denominator) throws IllegalArgumentException {
+    public Fraction(long numerator, long denominator) throws IllegalArgumentException {
         if (denominator == 0) throw new IllegalArgumentException("Can't divide by 0");
-        this.numerator = numerator/reducedDivider(numerator, denominator);
-        this.denominator = denominator/reducedDivider(numerator, denominator);
+        long divider = reducedDivider(numerator, denominator);
+        long reducedNum = numerator/divider;
+        long reducedDen = denominator/divider;
+
+        // Long.MIN_VALUE can't be negated, so those values are kept as BigIntegers instead
+        if (reducedNum == Long.MIN_VALUE || reducedDen == Long.MIN_VALUE) {
+            BigInteger[] reduced = reduce(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+            this.numerator = 0;
+            this.denominator = 0;
+            this.bigNumerator = reduced[0];
+            this.bigDenominator = reduced[1];
+        }
+        else {
+            this.numerator = reducedNum;
+            this.denominator = reducedDen;
+            this.bigNumerator = null;
+            this.bigDenominator = null;
+        }
     }
 
     /**
@@ -30,11 +65,155 @@ class Fraction {
      * @param denominator Represents denominator - an integer.
      * @throws IllegalArgumentException If denominator is 0
      */
-    public Fraction(int whole, int numerator, int denominator) {
+    public Fraction(long whole, long numerator, long denominator) {
+        this(mixed(whole, numerator, denominator));
+    }
+
+    /**
+     * Describes a Fraction of any size
+     * @param numerator Represents numerator - a BigInteger.
+     * @param denominator Represents denominator - a BigInteger.
+     * @throws IllegalArgumentException If denominator is 0
+     */
+    public Fraction(BigInteger numerator, BigInteger denominator) throws IllegalArgumentException {
+        if (denominator.signum() == 0) throw new IllegalArgumentException("Can't divide by 0");
+        BigInteger[] reduced = reduce(numerator, denominator);
+        boolean small = fitsSmall(reduced[0]) && fitsSmall(reduced[1]);
+
+        this.numerator = small ? reduced[0].longValue() : 0;
+        this.denominator = small ? reduced[1].longValue() : 0;
+        this.bigNumerator = small ? null : reduced[0];
+        this.bigDenominator = small ? null : reduced[1];
+    }
+
+    /**
+     * Copies an already reduced fraction.
+     * @param other the fraction to copy
+     */
+    private Fraction(Fraction other) {
+        this(other.numerator, other.denominator, other.bigNumerator, other.bigDenominator);
+    }
+
+    /**
+     * Stores an already reduced fraction as is.
+     * @param numerator the reduced numerator, or 0 if the fraction is big
+     * @param denominator the reduced positive denominator, or 0 if the fraction is big
+     * @param bigNumerator the reduced numerator if it does not fit in a long, otherwise null
+     * @param bigDenominator the reduced denominator if it does not fit in a long, otherwise null
+     */
+    private Fraction(long numerator, long denominator, BigInteger bigNumerator, BigInteger bigDenominator) {
+        this.numerator = numerator;
+        this.denominator = denominator;
+        this.bigNumerator = bigNumerator;
+        this.bigDenominator = bigDenominator;
+    }
+
+    /**
+     * Builds the table of interned small fractions. Fractions that are not reduced share
+     * the instance of their reduced form, for example 2/4 and 1/2.
+     * 
+     * @return the cache indexed by [denominator - 1][numerator - CACHE_LOW]
+     */
+    private static Fraction[][] buildCache() {
+        Fraction[][] cache = new Fraction[CACHE_MAX_DENOMINATOR][CACHE_HIGH - CACHE_LOW + 1];
+        for (int den = 1; den <= CACHE_MAX_DENOMINATOR; den++) {
+            for (int num = CACHE_LOW; num <= CACHE_HIGH; num++) {
+                long divider = reducedDivider(num, den);
+                if (divider == 1) {
+                    cache[den - 1][num - CACHE_LOW] = new Fraction(num, den, null, null);
+                }
+                else {
+                    cache[den - 1][num - CACHE_LOW] = cache[(int)(den / divider) - 1][(int)(num / divider) - CACHE_LOW];
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Returns a fraction representing the given integer, reusing a cached instance for small values.
+     * 
+     * @param numerator Represents numerator - an integer.
+     * @return a fraction equal to numerator/1
+     */
+    public static Fraction of(long numerator) {
+        return of(numerator, 1);
+    }
+
+    /**
+     * Returns a reduced fraction, reusing a cached instance for small values.
+     * 
+     * @param numerator Represents numerator - an integer.
+     * @param denominator Represents denominator - an integer.
+     * @return a fraction equal to numerator/denominator
+     * @throws IllegalArgumentException If denominator is 0
+     */
+    public static Fraction of(long numerator, long denominator) throws IllegalArgumentException {
         if (denominator == 0) throw new IllegalArgumentException("Can't divide by 0");
-        int improperNumerator = toImproperNumerator(whole, numerator, denominator);
-        this.numerator = improperNumerator/reducedDivider(improperNumerator, denominator);
-        this.denominator = denominator/reducedDivider(improperNumerator, denominator);
+        long divider = reducedDivider(numerator, denominator);
+        long reducedNum = numerator/divider;
+        long reducedDen = denominator/divider;
+
+        if (reducedNum == Long.MIN_VALUE || reducedDen == Long.MIN_VALUE) {
+            return new Fraction(numerator, denominator);
+        }
+        return ofReduced(reducedNum, reducedDen);
+    }
+
+    /**
+     * Returns a reduced fraction of any size, reusing a cached instance for small values.
+     * 
+     * @param numerator Represents numerator - a BigInteger.
+     * @param denominator Represents denominator - a BigInteger.
+     * @return a fraction equal to numerator/denominator
+     * @throws IllegalArgumentException If denominator is 0
+     */
+    public static Fraction of(BigInteger numerator, BigInteger denominator) throws IllegalArgumentException {
+        if (denominator.signum() == 0) throw new IllegalArgumentException("Can't divide by 0");
+        BigInteger[] reduced = reduce(numerator, denominator);
+
+        if (fitsSmall(reduced[0]) && fitsSmall(reduced[1])) {
+            return ofReduced(reduced[0].longValue(), reduced[1].longValue());
+        }
+        return new Fraction(0, 0, reduced[0], reduced[1]);
+    }
+
+    /**
+     * Returns a mixed fraction, reusing a cached instance for small values.
+     * 
+     * @param whole Represents whole value - an integer.
+     * @param numerator Represents numerator - an integer.
+     * @param denominator Represents denominator - an integer.
+     * @return a fraction equal to the mixed number
+     * @throws IllegalArgumentException If denominator is 0
+     */
+    public static Fraction mixed(long whole, long numerator, long denominator) throws IllegalArgumentException {
+        if (denominator == 0) throw new IllegalArgumentException("Can't divide by 0");
+        try {
+            return of(toImproperNumerator(whole, numerator, denominator), denominator);
+        } catch (ArithmeticException e) {
+            BigInteger convertedNum = BigInteger.valueOf(whole).abs().multiply(BigInteger.valueOf(denominator).abs())
+                    .add(BigInteger.valueOf(numerator).abs());
+            if (whole != 0 && numerator != 0 && (whole < 0) != (numerator < 0)) {
+                convertedNum = convertedNum.negate();
+            }
+            return of(convertedNum, BigInteger.valueOf(denominator));
+        }
+    }
+
+    /**
+     * Returns the cached instance of an already reduced fraction if it is in the cached range,
+     * otherwise a new fraction.
+     * 
+     * @param numerator the reduced numerator
+     * @param denominator the reduced positive denominator
+     * @return a fraction equal to numerator/denominator
+     */
+    private static Fraction ofReduced(long numerator, long denominator) {
+        if (denominator <= CACHE_MAX_DENOMINATOR && numerator >= CACHE_LOW && numerator <= CACHE_HIGH) {
+            return CACHE[(int)denominator - 1][(int)numerator - CACHE_LOW];
+        }
+        return new Fraction(numerator, denominator, null, null);
     }
 
 
@@ -45,58 +224,100 @@ class Fraction {
      * @param numerator the numerator in the mixed number
      * @param denominator the denominator in the mixed number
      * @return the numerator of the improper fraction
+     * @throws ArithmeticException if the improper numerator does not fit in a long
      */
-    private static int toImproperNumerator(int whole, int numerator, int denominator) {
-        int convertedNum = (Math.abs(whole) * Math.abs(denominator)) + Math.abs(numerator);
+    private static long toImproperNumerator(long whole, long numerator, long denominator) {
+        long convertedNum = Math.addExact(Math.multiplyExact(Math.absExact(whole), Math.absExact(denominator)), Math.absExact(numerator));
 
-        if (whole*numerator < 0) {
+        if (whole != 0 && numerator != 0 && (whole < 0) != (numerator < 0)) {
             return convertedNum * -1;
         }
         return convertedNum;
     }
 
     /**
-     * Checks if the numerator or denominator is negative, and return GCD accordingly
+     * Reduces a fraction of any size and moves the sign into the numerator.
+     * 
+     * @param numerator the numerator of the fraction
+     * @param denominator the denominator of the fraction, not 0
+     * @return an array containing the reduced numerator and the reduced positive denominator
+     */
+    private static BigInteger[] reduce(BigInteger numerator, BigInteger denominator) {
+        BigInteger divider = numerator.gcd(denominator);
+        if (denominator.signum() < 0) {
+            divider = divider.negate();
+        }
+        BigInteger reduced[] = {numerator.divide(divider), denominator.divide(divider)};
+        return reduced;
+    }
+
+    /**
+     * Checks if a BigInteger can be stored in the long fields. Long.MIN_VALUE is excluded so 
+     * that negating a small fraction never overflows.
+     * 
+     * @param value the value to check
+     * @return boolean - true if the value fits in the long fields, false otherwise
+     */
+    private static boolean fitsSmall(BigInteger value) {
+        return value.bitLength() < Long.SIZE && value.longValue() != Long.MIN_VALUE;
+    }
+
+    /**
+     * Checks if the numerator or denominator is negative, and return GCD accordingly.
+     * A zero numerator reduces by the whole denominator so that every zero is stored as 0/1.
      * 
      * @param numerator the numerator of the fraction
      * @param denominator the denominator of the fraction
      * @return Greatest common divisor
      */
-    private static int reducedDivider(int numerator, int denominator) {
-        int numGCD = gcd(numerator, denominator);
-
-        if (numerator == 0) return 1;
+    private static long reducedDivider(long numerator, long denominator) {
+        long numGCD = gcd(numerator, denominator);
 
-        if ((numerator < 0 && denominator < 0) || (denominator < 0)) {
+        if (denominator < 0) {
             return numGCD * -1;
         }
         return numGCD;
     }
 
     /**
-     * calculates the greatest common divisor (GCD) of two integers.
+     * calculates the greatest common divisor (GCD) of two integers using the Euclidean algorithm.
+     * The algorithm runs on the negated values, as every long can be negated to a non-positive value
+     * but Math.abs(Long.MIN_VALUE) stays negative.
      * 
      * @param valNum an integer representing the numerator value
      * @param valDen an integer representing the denominator value
-     * @return the GCD of valNum and valDen, or 0 if either value is 0 or if no common divisor exists
+     * @return the GCD of valNum and valDen, the absolute value of the other if one of them is 0, or 0 if both are 0.
+     *         Only a GCD of 2^63, when both values are 0 or Long.MIN_VALUE, is returned as Long.MIN_VALUE
      */
-    private static int gcd(int valNum, int valDen) {
-        int minNum = Math.min(Math.abs(valNum), Math.abs(valDen));
-
-        for (int testGCD = minNum; testGCD > 0; testGCD--) {
-            if (valNum % testGCD == 0 && valDen % testGCD == 0) {
-                return testGCD;
-            }
+    static long gcd(long valNum, long valDen) {
+        long a = valNum > 0 ? -valNum : valNum;
+        long b = valDen > 0 ? -valDen : valDen;
+
+        while (b != 0) {
+            long remainder = a % b;
+            a = b;
+            b = remainder;
         }
-        return 0;
+        return -a;
+    }
+
+    /**
+     * Checks if this fraction is stored in the BigInteger fields.
+     * 
+     * @return boolean - true if the fraction is too large for the long fields, false otherwise
+     */
+    boolean isBig() {
+        return bigNumerator != null;
     }
 
     /**
      * Returns the numerator value of a fraction.
      * 
      * @return the numerator value of the fraction
+     * @throws ArithmeticException if the numerator does not fit in a long
      */
-    public int getNumerator() {
+    public long getNumerator() {
+        if (isBig()) return bigNumerator.longValueExact();
         return numerator;
     }
 
@@ -104,80 +325,225 @@ class Fraction {
      * Returns the denominator value of a fraction.
      * 
      * @return the denominator value of the fraction
+     * @throws ArithmeticException if the denominator does not fit in a long
      */
-    public int getDenominator() {
+    public long getDenominator() {
+        if (isBig()) return bigDenominator.longValueExact();
         return denominator;
     }
 
-
     /**
-     * Returns the whole value of a fraction.
+     * Returns the numerator value of a fraction as a BigInteger.
      * 
-     * @return the whole value of the fraction
+     * @return the numerator value of the fraction
      */
-    public int getWhole() {
-        if (numerator < 0 && denominator < 0 || numerator > 0 && denominator > 0){
-            return numerator / denominator;
-        }
-        else {
-            return -1 * Math.abs(numerator) / Math.abs(denominator);
-        }
+    public BigInteger getBigNumerator() {
+        if (isBig()) return bigNumerator;
+        return BigInteger.valueOf(numerator);
     }
 
     /**
-     * Sets the numerator value of a fraction to a new value.
+     * Returns the denominator value of a fraction as a BigInteger.
      * 
-     * @param newNum the new numerator value to be set
-    */
-    public void setNumerator(int newNum) {
-        numerator = newNum;
+     * @return the denominator value of the fraction
+     */
+    public BigInteger getBigDenominator() {
+        if (isBig()) return bigDenominator;
+        return BigInteger.valueOf(denominator);
     }
 
+
     /**
-     * Sets the Denominator value of a fraction to a new value.
+     * Returns the whole value of a fraction.
      * 
-     * @param newDen the new Denominator value to be set
-    */
-    public void setDenominator(int newDen) {
-        denominator = newDen;
+     * @return the whole value of the fraction
+     * @throws ArithmeticException if the whole value does not fit in a long
+     */
+    public long getWhole() {
+        if (isBig()) return bigNumerator.divide(bigDenominator).longValueExact();
+        return numerator / denominator;
     }
 
     /**
      * Determines if a fraction is equal to another fraction.
      * 
-     * @param fraction the fraction to be compared to this fraction
-     * @return boolean - true if the fractions have the same numerator and denominator values, false otherwise
+     * @param other the object to be compared to this fraction
+     * @return boolean - true if the other object is a fraction with the same numerator and denominator values, false otherwise
      */
-    public boolean equals(Fraction fraction) {
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof Fraction)) return false;
+
+        Fraction fraction = (Fraction) other;
+        if (isBig() || fraction.isBig()) {
+            return getBigNumerator().equals(fraction.getBigNumerator()) && getBigDenominator().equals(fraction.getBigDenominator());
+        }
         return (numerator == fraction.numerator && denominator == fraction.denominator);
     }
 
     /**
-     * Creates a copy of a fraction object.
+     * Returns a hash code for this fraction that is consistent with equals.
+     * 
+     * @return the hash code of the fraction
+     */
+    @Override
+    public int hashCode() {
+        if (isBig()) return 31 * bigNumerator.hashCode() + bigDenominator.hashCode();
+        return 31 * Long.hashCode(numerator) + Long.hashCode(denominator);
+    }
+
+    /**
+     * Creates a copy of a fraction object. As fractions are immutable the same object can be shared.
      * 
      * @param other the fraction object to be cloned
-     * @return a new fraction object with the same numerator and denominator values as the original
+     * @return a fraction object with the same numerator and denominator values as the original
     */
     public Fraction clone(Fraction other) {
         return other;
     }
 
+    /**
+    * The ways a fraction can be written: mixed (1 1/2), improper (3/2) or decimal (1.5)
+    */
+    enum formatStyle {
+        mixed,
+        improper,
+        decimal
+    }
+
+    // the largest number of decimal places, so the digits after the point still fit in a long
+    static final int MAX_DECIMAL_PLACES = 18;
+
     /**
      * Returns a string representation of a fraction.
      * 
      * @return a string representation of the fraction
     */
+    @Override
     public String toString() {
-        if (getWhole() == 0 && denominator != 1 && numerator != 0){
-            return String.format("%d/%d", numerator, denominator);
+        return formatTo(new StringBuilder()).toString();
+    }
+
+    /**
+     * Writes the fraction as a mixed number, like toString, to the end of a StringBuilder.
+     * The digits are appended directly without creating intermediate strings.
+     * 
+     * @param out the StringBuilder to append to
+     * @return the same StringBuilder
+     */
+    public StringBuilder formatTo(StringBuilder out) {
+        if (isBig()) {
+            BigInteger[] wholeAndRemainder = bigNumerator.divideAndRemainder(bigDenominator);
+            if (wholeAndRemainder[0].signum() == 0) {
+                return out.append(bigNumerator).append('/').append(bigDenominator);
+            }
+            else if (wholeAndRemainder[1].signum() != 0) {
+                return out.append(wholeAndRemainder[0]).append(' ').append(wholeAndRemainder[1].abs()).append('/').append(bigDenominator);
+            }
+            return out.append(wholeAndRemainder[0]);
         }
 
-        else if (getWhole() != 0 && numerator % denominator != 0){
-            return String.format("%d %d/%d", getWhole(), Math.abs(numerator % denominator), Math.abs(denominator));
+        long whole = numerator / denominator;
+        long remainder = numerator % denominator;
+        if (whole == 0 && remainder != 0) {
+            return out.append(numerator).append('/').append(denominator);
         }
-        else{
-            return Integer.toString(getWhole());
+        else if (remainder != 0) {
+            return out.append(whole).append(' ').append(Math.abs(remainder)).append('/').append(denominator);
+        }
+        return out.append(whole);
+    }
+
+    /**
+     * Writes the fraction in the given style to the end of a StringBuilder.
+     * 
+     * @param out the StringBuilder to append to
+     * @param style mixed (1 1/2), improper (3/2) or decimal (1.5)
+     * @param decimalPlaces the largest number of digits after the decimal point, rounded half up. Only used by the decimal style.
+     * @return the same StringBuilder
+     * @throws IllegalArgumentException if decimalPlaces is not between 0 and 18
+     */
+    public StringBuilder formatTo(StringBuilder out, formatStyle style, int decimalPlaces) {
+        if (decimalPlaces < 0 || decimalPlaces > MAX_DECIMAL_PLACES) {
+            throw new IllegalArgumentException("Decimal places must be between 0 and " + MAX_DECIMAL_PLACES);
+        }
+        switch (style) {
+            case mixed:
+                return formatTo(out);
+            case improper:
+                if (isBig()) {
+                    if (bigDenominator.equals(BigInteger.ONE)) return out.append(bigNumerator);
+                    return out.append(bigNumerator).append('/').append(bigDenominator);
+                }
+                if (denominator == 1) return out.append(numerator);
+                return out.append(numerator).append('/').append(denominator);
+            default:
+                return formatDecimalTo(out, decimalPlaces);
+        }
+    }
+
+    /**
+     * Writes the fraction as a decimal with at most the given number of digits after the point.
+     * The digits are found by long division, and trailing zeros are left out.
+     * 
+     * @param out the StringBuilder to append to
+     * @param decimalPlaces the largest number of digits after the decimal point, between 0 and 18
+     * @return the same StringBuilder
+     */
+    private StringBuilder formatDecimalTo(StringBuilder out, int decimalPlaces) {
+        // the next remainder times 10 has to fit in a long for the long division
+        if (isBig() || denominator > Long.MAX_VALUE / 10) {
+            BigDecimal value = new BigDecimal(getBigNumerator()).divide(new BigDecimal(getBigDenominator()), decimalPlaces, RoundingMode.HALF_UP);
+            if (value.signum() == 0) return out.append('0');
+            return out.append(value.stripTrailingZeros().toPlainString());
+        }
+
+        long whole = Math.abs(numerator / denominator);
+        long remainder = Math.abs(numerator % denominator);
+        long digits = 0;
+        for (int i = 0; i < decimalPlaces; i++) {
+            remainder *= 10;
+            digits = digits * 10 + remainder / denominator;
+            remainder %= denominator;
+        }
+        // round half up with the next digit
+        if (remainder * 10 / denominator >= 5) {
+            digits++;
+            if (digits == pow10(decimalPlaces)) {
+                digits = 0;
+                whole++;
+            }
+        }
+
+        int places = decimalPlaces;
+        while (places > 0 && digits % 10 == 0) {
+            digits /= 10;
+            places--;
+        }
+
+        if (numerator < 0 && (whole != 0 || digits != 0)) out.append('-');
+        out.append(whole);
+        if (places > 0) {
+            out.append('.');
+            for (long leading = pow10(places - 1); leading > 1 && digits < leading; leading /= 10) {
+                out.append('0');
+            }
+            out.append(digits);
+        }
+        return out;
+    }
+
+    /**
+     * @param exponent the power of 10, between 0 and 18
+     * @return 10 to the power of the exponent
+     */
+    private static long pow10(int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 10;
         }
+        return result;
     }
 
     /**
@@ -186,7 +552,20 @@ class Fraction {
      * @return the decimal value of the fraction as a double
     */
     public double toDouble() { 
-        return Double.valueOf(numerator)/Double.valueOf(denominator);
+        if (isBig()) {
+            return new BigDecimal(bigNumerator).divide(new BigDecimal(bigDenominator), MathContext.DECIMAL64).doubleValue();
+        }
+        return (double)numerator/(double)denominator;
+    }
+
+    /**
+     * Returns the negative of this fraction as a new fraction object.
+     * 
+     * @return a new fraction object with the sign of the numerator flipped
+    */
+    public Fraction negate() {
+        if (isBig()) return of(bigNumerator.negate(), bigDenominator);
+        return ofReduced(-numerator, denominator);
     }
 
     /**
@@ -196,10 +575,25 @@ class Fraction {
      * @return a new fraction object representing the sum of the two fractions
     */
     public Fraction add(Fraction other) {
-        int newNum = numerator * other.denominator + other.numerator * denominator;
-        int newDen = other.denominator * denominator;
+        if (!isBig() && !other.isBig()) {
+            try {
+                // only scale each side up to the least common denominator to keep the terms small
+                long denGCD = gcd(denominator, other.denominator);
+                long otherScale = other.denominator / denGCD;
+                long thisScale = denominator / denGCD;
+
+                long newNum = Math.addExact(Math.multiplyExact(numerator, otherScale), Math.multiplyExact(other.numerator, thisScale));
+                long newDen = Math.multiplyExact(denominator, otherScale);
+
+                return of(newNum, newDen);
+            } catch (ArithmeticException e) {
+                // the result is too large for a long, so promote it below
+            }
+        }
+        BigInteger newNum = getBigNumerator().multiply(other.getBigDenominator()).add(other.getBigNumerator().multiply(getBigDenominator()));
+        BigInteger newDen = getBigDenominator().multiply(other.getBigDenominator());
 
-        return new Fraction(newNum, newDen);
+        return of(newNum, newDen);
     }
 
     /**
@@ -209,7 +603,7 @@ class Fraction {
      * @return a new fraction object representing the difference of the two fractions
     */
     public Fraction subtract(Fraction other) {
-        return this.add(new Fraction(other.numerator * -1, other.denominator));
+        return this.add(other.negate());
     }
 
     /**
@@ -219,7 +613,21 @@ class Fraction {
      * @return a new fraction object representing the product of the two fractions
     */
     public Fraction multiply(Fraction other) {
-        return new Fraction(numerator * other.numerator, denominator * other.denominator);
+        if (!isBig() && !other.isBig()) {
+            try {
+                // cancel across the terms first: a/b * c/d = (a/gcd(a,d) * c/gcd(c,b)) / (b/gcd(c,b) * d/gcd(a,d))
+                long firstGCD = gcd(numerator, other.denominator);
+                long secondGCD = gcd(other.numerator, denominator);
+
+                long newNum = Math.multiplyExact(numerator / firstGCD, other.numerator / secondGCD);
+                long newDen = Math.multiplyExact(denominator / secondGCD, other.denominator / firstGCD);
+
+                return of(newNum, newDen);
+            } catch (ArithmeticException e) {
+                // the result is too large for a long, so promote it below
+            }
+        }
+        return of(getBigNumerator().multiply(other.getBigNumerator()), getBigDenominator().multiply(other.getBigDenominator()));
     }
 
     /**
@@ -227,9 +635,26 @@ class Fraction {
      * 
      * @param other the fraction to be divided to the current fraction
      * @return a new fraction object representing the quotient of the two fractions
+     * @throws IllegalArgumentException If the other fraction is 0
     */
-    public Fraction divide(Fraction other) {
-        return new Fraction(numerator * other.denominator, denominator * other.numerator);
+    public Fraction divide(Fraction other) throws IllegalArgumentException {
+        if (other.getBigNumerator().signum() == 0) throw new IllegalArgumentException("Can't divide by 0");
+
+        if (!isBig() && !other.isBig()) {
+            try {
+                // cancel across the terms first: a/b / c/d = (a/gcd(a,c) * d/gcd(d,b)) / (b/gcd(d,b) * c/gcd(a,c))
+                long firstGCD = gcd(numerator, other.numerator);
+                long secondGCD = gcd(other.denominator, denominator);
+
+                long newNum = Math.multiplyExact(numerator / firstGCD, other.denominator / secondGCD);
+                long newDen = Math.multiplyExact(denominator / secondGCD, other.numerator / firstGCD);
+
+                return of(newNum, newDen);
+            } catch (ArithmeticException e) {
+                // the result is too large for a long, so promote it below
+            }
+        }
+        return of(getBigNumerator().multiply(other.getBigDenominator()), getBigDenominator().multiply(other.getBigNumerator()));
     }
 
     /**
@@ -239,9 +664,17 @@ class Fraction {
      * @param power the power to raise this fraction to.
      * @return a new Fraction object that represents this fraction raised to the
      * specified power.
+     * @throws IllegalArgumentException If the fraction is 0 and the power is negative
      */
-    public Fraction pow(int power) {
-        return new Fraction((int)Math.pow(numerator, power), (int)Math.pow(denominator, power));
+    public Fraction pow(int power) throws IllegalArgumentException {
+        if (power < 0) {
+            return of(1).divide(pow(-power));
+        }
+        Fraction result = of(1);
+        for (int i = 0; i < power; i++) {
+            result = result.multiply(this);
+        }
+        return result;
     }
 
     /**
@@ -294,10 +727,11 @@ class Fraction {
      * Returns a random integer between 1 and the specified maximum value (inclusive).
      *
      * @param max the maximum value that the generated number can take.
+     * @param random the source of random numbers
      * @return a random integer between 1 and the specified maximum value (inclusive).
      */
-    private static int generateNum(int max) {
-        return (int)(Math.random() * max + 1);
+    private static int generateNum(int max, RandomGenerator random) {
+        return random.nextInt(max) + 1;
     }
 
 
@@ -308,16 +742,27 @@ class Fraction {
      * @return a random Fraction object
      */
     public static Fraction random() {
-        int fracType = generateNum(2);
+        return random(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Returns a random Fraction object from the given source of random numbers, 
+     * so a seeded generator always gives the same fractions.
+     *
+     * @param random the source of random numbers, like a seeded SplittableRandom
+     * @return a random Fraction object
+     */
+    public static Fraction random(RandomGenerator random) {
+        int fracType = generateNum(2, random);
 
         if (fracType == 0){
-            return new Fraction(generateNum(10));
+            return of(generateNum(10, random));
         }
         else if (fracType == 1){
-            return new Fraction(generateNum(10), generateNum(10));
+            return of(generateNum(10, random), generateNum(10, random));
         }
         else{
-            return new Fraction(generateNum(10), generateNum(10), generateNum(10));
+            return mixed(generateNum(10, random), generateNum(10, random), generateNum(10, random));
         }
     }
 
@@ -325,42 +770,96 @@ class Fraction {
     /**
      * Returns a fraction object from the input string representation of a fraction.
      * 
-     * @param VectorStr the string representation of a fraction in the format of mixed, improper, or whole"
+     * @param fraction the string representation of a fraction in the format of mixed, improper, or whole
      * @return a new fraction object created from the input string representation
-     * @throws IllegalAccessException if the input string does not match the expected format
+     * @throws IllegalArgumentException if the input string does not match the expected format
      */
     public static Fraction valueOf(String fraction) throws IllegalArgumentException {
-        if (fraction.strip().matches(wholeFractionForm())) {
-            return new Fraction(Integer.valueOf(fraction.strip()), 1);
-        }
-        else if (fraction.strip().matches(fractionForm())) {
-
-            // spilt the fraction using the "/" in the midde to get the different components 
-            String top = fraction.split("/")[0].strip();
-            String den = fraction.split("/")[1].strip();
-            int denInt = Integer.valueOf(den);
-
-            // if the fraction is mixed we will have to do a bit more work. 
-            // We will get the whole component of the fraction using the space bettween the numbers
-            // for exmaple: 5 2/4. 
-            if (fraction.strip().matches(mixedFractionForm())) {
-                String topSplit[] = top.replace("/", "").strip().split(" ");
-                String whole = topSplit[0];
-                String num = topSplit[topSplit.length - 1];
-                int wholeInt = Integer.valueOf(whole);
-
-                int numInt = Integer.valueOf(num);
-    
-                return new Fraction(wholeInt, numInt, denInt);
-            }
+        return valueOf(fraction, 0, fraction.length());
+    }
+
+    /**
+     * Returns a fraction object from part of a character sequence, without creating substrings.
+     * Leading and trailing whitespace is ignored. The formats are:
+     * whole: -z, improper: -y / -z, and mixed: -x -y / -z, where every "-" is optional.
+     * 
+     * @param text the characters containing the fraction
+     * @param start the index of the first character of the fraction
+     * @param end the index after the last character of the fraction
+     * @return a new fraction object created from the characters
+     * @throws IllegalArgumentException if the characters do not match the expected format
+     */
+    public static Fraction valueOf(CharSequence text, int start, int end) throws IllegalArgumentException {
+        while (start < end && Character.isWhitespace(text.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) end--;
 
-            int numInt = Integer.valueOf(top);
+        int[] position = {start};
+        long first = scanInteger(text, position, end);
+        int afterFirst = position[0];
+        skipWhitespace(text, position, end);
 
-            return new Fraction(numInt, denInt);
+        if (position[0] == end) {
+            return of(first);
         }
-        else {
-            throw new IllegalArgumentException("Invaild Fraction Format");
+        if (text.charAt(position[0]) == '/') {
+            position[0]++;
+            skipWhitespace(text, position, end);
+            long denominator = scanInteger(text, position, end);
+            if (position[0] != end) throw new IllegalArgumentException("Invaild Fraction Format");
+            return of(first, denominator);
+        }
+
+        // a mixed fraction needs a space between the whole and the numerator, for exmaple: 5 2/4.
+        if (text.charAt(afterFirst) != ' ') throw new IllegalArgumentException("Invaild Fraction Format");
+        long numerator = scanInteger(text, position, end);
+        skipWhitespace(text, position, end);
+        if (position[0] == end || text.charAt(position[0]) != '/') throw new IllegalArgumentException("Invaild Fraction Format");
+        position[0]++;
+        skipWhitespace(text, position, end);
+        long denominator = scanInteger(text, position, end);
+        if (position[0] != end) throw new IllegalArgumentException("Invaild Fraction Format");
+        return mixed(first, numerator, denominator);
+    }
+
+    /**
+     * Reads an integer with an optional "-" directly in front of it and moves the position after it.
+     * 
+     * @param text the characters containing the integer
+     * @param position a one element array holding the index to read from, updated to the index after the integer
+     * @param end the index after the last character that can be read
+     * @return the integer that was read
+     * @throws IllegalArgumentException if there is no integer at the position or it does not fit in a long
+     */
+    private static long scanInteger(CharSequence text, int[] position, int end) throws IllegalArgumentException {
+        int index = position[0];
+        boolean negative = index < end && text.charAt(index) == '-';
+        if (negative) index++;
+
+        int digitsStart = index;
+        long value = 0;
+        while (index < end && text.charAt(index) >= '0' && text.charAt(index) <= '9') {
+            // accumulate as a negative number so that Long.MIN_VALUE can be read
+            long digit = text.charAt(index) - '0';
+            if (value < (Long.MIN_VALUE + digit) / 10) throw new IllegalArgumentException("Invaild Fraction Format");
+            value = value * 10 - digit;
+            index++;
         }
+        if (index == digitsStart) throw new IllegalArgumentException("Invaild Fraction Format");
+        if (!negative && value == Long.MIN_VALUE) throw new IllegalArgumentException("Invaild Fraction Format");
+
+        position[0] = index;
+        return negative ? value : -value;
+    }
+
+    /**
+     * Moves the position past any whitespace.
+     * 
+     * @param text the characters to read
+     * @param position a one element array holding the index to read from, updated to the first non whitespace index
+     * @param end the index after the last character that can be read
+     */
+    private static void skipWhitespace(CharSequence text, int[] position, int end) {
+        while (position[0] < end && Character.isWhitespace(text.charAt(position[0]))) position[0]++;
     }
 
 
@@ -399,6 +898,12 @@ class Fraction {
         System.out.println(new Fraction(-1).subtract(new Fraction(0))); // -1
         System.out.println(new Fraction(-1).multiply(new Fraction(0))); // 0
         System.out.println(new Fraction(-1).divide(new Fraction(1))); // -1
+
+        System.out.println(Fraction.of(2, 4) == Fraction.of(-1, -2)); // true
+        System.out.println(new Fraction(6, 4).equals(Fraction.mixed(1, 1, 2))); // true
+        System.out.println(new Fraction(6, 4).hashCode() == Fraction.of(3, 2).hashCode()); // true
+        System.out.println(new Fraction(Long.MIN_VALUE, 6)); // -1537228672809129301 1/3
+        System.out.println(Fraction.of(Long.MIN_VALUE, 6).equals(Fraction.of(BigInteger.valueOf(Long.MIN_VALUE), BigInteger.valueOf(6)))); // true
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,195 @@
+import java.math.BigInteger;
+
+/**
+* A mutable sum of fractions. Terms are added over a running common denominator, the least common multiple
+* of the denominators so far, and the sum is only reduced when it would overflow a long or when it is read.
+* Once the sum doesn't fit in longs even after reducing, it continues in BigIntegers.
+* Products can be added directly, which is used for dot and cross products.
+*/
+class FractionAccumulator {
+    private long numerator;
+    private long denominator;
+    // only used once the sum is too large for the long fields, null otherwise
+    private BigInteger bigNumerator;
+    private BigInteger bigDenominator;
+
+    /**
+     * Creates an accumulator holding 0.
+     */
+    FractionAccumulator() {
+        clear();
+    }
+
+    /**
+     * Adds a fraction to the sum.
+     *
+     * @param term the fraction to add
+     */
+    void add(Fraction term) {
+        accumulate(term, false);
+    }
+
+    /**
+     * Subtracts a fraction from the sum.
+     *
+     * @param term the fraction to subtract
+     */
+    void subtract(Fraction term) {
+        accumulate(term, true);
+    }
+
+    /**
+     * Adds the product of two fractions to the sum, without creating the product as a Fraction.
+     *
+     * @param first the first factor
+     * @param second the second factor
+     */
+    void addProduct(Fraction first, Fraction second) {
+        accumulateProduct(first, second, false);
+    }
+
+    /**
+     * Subtracts the product of two fractions from the sum, without creating the product as a Fraction.
+     *
+     * @param first the first factor
+     * @param second the second factor
+     */
+    void subtractProduct(Fraction first, Fraction second) {
+        accumulateProduct(first, second, true);
+    }
+
+    /**
+     * Sets the sum back to 0.
+     */
+    void clear() {
+        numerator = 0;
+        denominator = 1;
+        bigNumerator = null;
+        bigDenominator = null;
+    }
+
+    /**
+     * Reduces the sum and returns it as a Fraction.
+     *
+     * @return the sum of all terms
+     */
+    Fraction toFraction() {
+        if (bigNumerator != null) return Fraction.of(bigNumerator, bigDenominator);
+        return Fraction.of(numerator, denominator);
+    }
+
+    /**
+     * Adds or subtracts a term, trying longs first, then longs after reducing the sum, then BigIntegers.
+     *
+     * @param term the fraction to add or subtract
+     * @param negate true to subtract the term, false to add it
+     */
+    private void accumulate(Fraction term, boolean negate) {
+        if (bigNumerator == null && !term.isBig()) {
+            // a Fraction never stores Long.MIN_VALUE, so the negation can't overflow
+            long termNumerator = negate ? -term.getNumerator() : term.getNumerator();
+            if (addSmallReducing(termNumerator, term.getDenominator())) return;
+        }
+        BigInteger termNumerator = term.getBigNumerator();
+        addBig(negate ? termNumerator.negate() : termNumerator, term.getBigDenominator());
+    }
+
+    /**
+     * Adds or subtracts the product of two fractions. The product is first multiplied out directly,
+     * then with common factors cancelled if that overflows, and in BigIntegers if it still doesn't fit.
+     *
+     * @param first the first factor
+     * @param second the second factor
+     * @param negate true to subtract the product, false to add it
+     */
+    private void accumulateProduct(Fraction first, Fraction second, boolean negate) {
+        if (bigNumerator == null && !first.isBig() && !second.isBig()) {
+            long numerator = first.getNumerator();
+            long denominator = first.getDenominator();
+            long otherNumerator = second.getNumerator();
+            long otherDenominator = second.getDenominator();
+            try {
+                long productNumerator = Math.multiplyExact(numerator, otherNumerator);
+                long productDenominator = Math.multiplyExact(denominator, otherDenominator);
+                if (productNumerator != Long.MIN_VALUE
+                        && addSmall(negate ? -productNumerator : productNumerator, productDenominator)) return;
+
+                long firstGCD = Fraction.gcd(numerator, otherDenominator);
+                long secondGCD = Fraction.gcd(otherNumerator, denominator);
+                productNumerator = Math.multiplyExact(numerator / firstGCD, otherNumerator / secondGCD);
+                productDenominator = Math.multiplyExact(denominator / secondGCD, otherDenominator / firstGCD);
+                if (productNumerator != Long.MIN_VALUE
+                        && addSmallReducing(negate ? -productNumerator : productNumerator, productDenominator)) return;
+            } catch (ArithmeticException e) {
+                // the product doesn't fit in a long, calculate it with BigIntegers below
+            }
+        }
+        BigInteger productNumerator = first.getBigNumerator().multiply(second.getBigNumerator());
+        addBig(negate ? productNumerator.negate() : productNumerator, first.getBigDenominator().multiply(second.getBigDenominator()));
+    }
+
+    /**
+     * Adds a term to the long sum, reducing the sum first if the term doesn't fit.
+     *
+     * @param termNumerator the numerator of the term, not Long.MIN_VALUE
+     * @param termDenominator the positive denominator of the term
+     * @return boolean - true if the term was added, false if the sum would still overflow
+     */
+    private boolean addSmallReducing(long termNumerator, long termDenominator) {
+        if (addSmall(termNumerator, termDenominator)) return true;
+
+        long divider = Fraction.gcd(numerator, denominator);
+        numerator /= divider;
+        denominator /= divider;
+        return addSmall(termNumerator, termDenominator);
+    }
+
+    /**
+     * Adds a term to the sum with BigIntegers, moving the sum to the BigInteger fields if it isn't there yet.
+     *
+     * @param termNumerator the numerator of the term
+     * @param termDenominator the positive denominator of the term
+     */
+    private void addBig(BigInteger termNumerator, BigInteger termDenominator) {
+        if (bigNumerator == null) {
+            bigNumerator = BigInteger.valueOf(numerator);
+            bigDenominator = BigInteger.valueOf(denominator);
+        }
+        BigInteger divider = bigDenominator.gcd(termDenominator);
+        BigInteger scale = termDenominator.divide(divider);
+        bigNumerator = bigNumerator.multiply(scale).add(termNumerator.multiply(bigDenominator.divide(divider)));
+        bigDenominator = bigDenominator.multiply(scale);
+    }
+
+    /**
+     * Adds a term to the long sum over the least common multiple of the two denominators.
+     * When the sum's denominator is already a multiple of the term's, no gcd is needed.
+     *
+     * @param termNumerator the numerator of the term
+     * @param termDenominator the positive denominator of the term
+     * @return boolean - true if the term was added, false if the sum would overflow and nothing was changed
+     */
+    private boolean addSmall(long termNumerator, long termDenominator) {
+        try {
+            long newNumerator;
+            long newDenominator;
+            if (denominator % termDenominator == 0) {
+                newDenominator = denominator;
+                newNumerator = Math.addExact(numerator, Math.multiplyExact(termNumerator, denominator / termDenominator));
+            }
+            else {
+                long divider = Fraction.gcd(denominator, termDenominator);
+                long scale = termDenominator / divider;
+                newDenominator = Math.multiplyExact(denominator, scale);
+                newNumerator = Math.addExact(Math.multiplyExact(numerator, scale), Math.multiplyExact(termNumerator, denominator / divider));
+            }
+            // Long.MIN_VALUE can't be negated or passed to gcd
+            if (newNumerator == Long.MIN_VALUE) return false;
+            numerator = newNumerator;
+            denominator = newDenominator;
+            return true;
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+}
@@ -1,4 +1,11 @@
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Path;
+
 public class Main {
+    private static final int DEFAULT_PORT = 8080;
+    // the default number of HTTP requests calculated at the same time
+    private static final int DEFAULT_MAX_CONCURRENT = 4 * Runtime.getRuntime().availableProcessors();
 
     /**
      * Prints the intro options to the user
@@ -13,8 +20,10 @@ public class Main {
     /**
      * Runs the main loop of the program, which displays an introduction menu and
      * prompts the user for input.
+     * 
+     * @param quizLog the log quiz sessions are written to, or null to not log them
      */
-    private static void run() {
+    private static void run(QuizLog quizLog) {
         String userAns = "";
         
         printIntro();
@@ -28,7 +37,7 @@ public class Main {
                 printIntro();
             }
             else if (userAns.equals("2")) {
-                Quiz.runQuiz();
+                Quiz.runQuiz(quizLog);
                 printIntro();
             }
             else if (!userAns.equals("3")) {
@@ -38,7 +47,173 @@ public class Main {
         UserInput.close();
     }
 
+    /**
+     * Prints how to run the program without the interactive menu
+     */
+    private static void printUsage() {
+        System.out.println("Usage:");
+        System.out.println("  java Main                                     Start the interactive menu");
+        System.out.println("  java Main --eval-file <input> --out <output>  Calculate every line of the input file");
+        System.out.println("            [--store <file>]                    and keep the results in a store file for the next run");
+        System.out.println("  java Main --quiz-bank <type> <count> <seed> <output>  Write a reproducible set of quiz questions with answers");
+        System.out.println("                                                types: crossProduct, dotProduct, add, subtract, angle, complex");
+        System.out.println("  java Main --quiz-log <log>                    Start the interactive menu and log quiz sessions");
+        System.out.println("  java Main --quiz-stats <log>                  Print the results of every user in a quiz log");
+        System.out.println("  java Main --pipe                              Calculate every line of the standard input");
+        System.out.println("  java Main --serve [port] [max-concurrent]     Serve the calculator over HTTP (default port " + DEFAULT_PORT + ")");
+        System.out.println("            [bind-address]                      on this machine only, unless an address to listen on is given");
+    }
+
+    /**
+     * Calculates every line of a file of equations as given by the command line arguments.
+     * 
+     * @param args the command line arguments: --eval-file input --out output [--store file]
+     */
+    private static void runEvalFile(String[] args) {
+        String inputFile = null;
+        String outputFile = null;
+        String storeFile = null;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals("--eval-file")) {
+                inputFile = args[i + 1];
+            }
+            else if (args[i].equals("--out")) {
+                outputFile = args[i + 1];
+            }
+            else if (args[i].equals("--store")) {
+                storeFile = args[i + 1];
+            }
+        }
+
+        if (inputFile == null || outputFile == null || args.length % 2 != 0) {
+            printUsage();
+            return;
+        }
+
+        try (ResultStore store = storeFile == null ? null : ResultStore.open(Path.of(storeFile))) {
+            VectorCalculator.setStore(store);
+            FileEvaluator.evaluateFile(Path.of(inputFile), Path.of(outputFile));
+            if (store != null) {
+                System.out.println(String.format("Store: %d results, %d found, %d calculated", store.size(), store.getHits(), store.getMisses()));
+            }
+        } catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
+        } finally {
+            VectorCalculator.setStore(null);
+        }
+    }
+
+    /**
+     * Writes a set of quiz questions with their answers to a file as given by the command line arguments.
+     * 
+     * @param args the command line arguments: --quiz-bank type count seed output
+     */
+    private static void runQuizBank(String[] args) {
+        try {
+            Quiz.questionType type = Quiz.questionType.valueOf(args[1]);
+            long count = Long.parseLong(args[2]);
+            long seed = Long.parseLong(args[3]);
+            long startTime = System.nanoTime();
+            QuizGenerator.writeQuestions(type, count, seed, Path.of(args[4]));
+            System.out.println(String.format("Wrote %d questions in %.3f seconds", count, (System.nanoTime() - startTime) / 1e9));
+        } catch (IllegalArgumentException e) {
+            printUsage();
+        } catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs the interactive menu with every quiz session appended to a log file.
+     * 
+     * @param file the log file, created if it doesn't exist
+     */
+    private static void runWithQuizLog(String file) {
+        try (QuizLog log = QuizLog.open(Path.of(file))) {
+            run(log);
+        } catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads a quiz log and prints the results of every user.
+     * 
+     * @param file the log file
+     */
+    private static void runQuizStats(String file) {
+        try {
+            long startTime = System.nanoTime();
+            QuizLogReplay replay = QuizLogReplay.replay(Path.of(file));
+            replay.printStats(System.out);
+            System.out.println(String.format("Replayed in %.3f seconds", (System.nanoTime() - startTime) / 1e9));
+        } catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Calculates every line of the standard input and writes the results to the standard output.
+     */
+    private static void runPipe() {
+        try {
+            PipeEvaluator.evaluate(System.in, System.out);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts the HTTP server as given by the command line arguments. The server keeps running until the program is stopped.
+     * 
+     * @param args the command line arguments: --serve [port] [max-concurrent] [bind-address]
+     */
+    private static void runServer(String[] args) {
+        int port = DEFAULT_PORT;
+        int maxConcurrent = DEFAULT_MAX_CONCURRENT;
+        try {
+            if (args.length > 1) port = Integer.parseInt(args[1]);
+            if (args.length > 2) maxConcurrent = Integer.parseInt(args[2]);
+        } catch (NumberFormatException e) {
+            printUsage();
+            return;
+        }
+
+        try {
+            InetAddress address = args.length > 3 ? InetAddress.getByName(args[3]) : InetAddress.getLoopbackAddress();
+            CalculatorServer server = CalculatorServer.start(address, port, maxConcurrent);
+            System.out.println("Serving the calculator on http://" + server.getAddress().getHostAddress() + ":" + server.getPort()
+                    + " (/calculate and /batch)");
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+    }
+
     public static void main(String[] args) {
-        run();
+        if (args.length == 0) {
+            run(null);
+        }
+        else if (args[0].equals("--eval-file") || args[0].equals("--out") || args[0].equals("--store")) {
+            runEvalFile(args);
+        }
+        else if (args[0].equals("--quiz-bank") && args.length == 5) {
+            runQuizBank(args);
+        }
+        else if (args[0].equals("--quiz-log") && args.length == 2) {
+            runWithQuizLog(args[1]);
+        }
+        else if (args[0].equals("--quiz-stats") && args.length == 2) {
+            runQuizStats(args[1]);
+        }
+        else if (args[0].equals("--pipe") && args.length == 1) {
+            runPipe();
+        }
+        else if (args[0].equals("--serve") && args.length <= 4) {
+            runServer(args);
+        }
+        else {
+            printUsage();
+        }
     }
 }
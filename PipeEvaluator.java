@@ -0,0 +1,75 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+* Calculates equations read from a stream, one per line, and writes one result line per equation without any prompts.
+* Lines that are already available are calculated together, so a pipe full of equations is calculated in parallel
+* batches while a slow writer still gets each answer as soon as its line arrives.
+*/
+class PipeEvaluator {
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    // the largest number of lines that are calculated before the results are written
+    private static final int BATCH_SIZE = 4096;
+
+    /**
+     * Calculates every line of the input until it ends. Each result is written on its own line in the same order,
+     * a failed line is written as "Error: " followed by the message, and blank lines stay blank.
+     * The output is flushed after every batch.
+     *
+     * @param input the stream of equations
+     * @param output the stream the results are written to
+     * @throws IOException if the input can't be read or the output can't be written
+     */
+    public static void evaluate(InputStream input, OutputStream output) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), BUFFER_SIZE);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+
+        String line = reader.readLine();
+        while (line != null) {
+            batch.add(line);
+            // keep adding lines while they can be read without waiting
+            while (batch.size() < BATCH_SIZE && reader.ready() && (line = reader.readLine()) != null) {
+                batch.add(line);
+            }
+            writeBatch(batch, writer);
+            batch.clear();
+            line = reader.readLine();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Calculates a batch of lines in parallel, writes their results in order and flushes the output.
+     * Blank lines are not calculated, they are written as blank lines.
+     *
+     * @param batch the lines to calculate
+     * @param writer the output to write the results to
+     * @throws IOException if the output can't be written
+     */
+    private static void writeBatch(List<String> batch, Writer writer) throws IOException {
+        List<String> equations = new ArrayList<>(batch.size());
+        for (String line : batch) {
+            if (!line.isBlank()) equations.add(line);
+        }
+        List<CalculationResult> results = VectorCalculator.calculateAll(equations);
+
+        int next = 0;
+        for (String line : batch) {
+            if (!line.isBlank()) {
+                writer.write(results.get(next++).toString());
+            }
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+}
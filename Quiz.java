@@ -1,10 +1,14 @@
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /** 
 * Generates and creates random quizes
 */
 public class Quiz {
 
-    private enum questionType {
+    enum questionType {
         crossProduct,
         dotProduct,
         add,
@@ -43,19 +47,23 @@ public class Quiz {
     /**
      * Generates a random vector-scalar equation in three dimensions.
      * 
-     * @return a string representation of a random vector-scalar equation in three dimensions.
+     * @param random the source of random numbers
+     * @param question the question to append the equation to
      */
-    private static String randomVecScalar3D() {
-        return Fraction.random().toString() + vector.random3D().toString();
+    private static void randomVecScalar3D(RandomGenerator random, StringBuilder question) {
+        Fraction.random(random).formatTo(question);
+        vector.random3D(random).formatTo(question);
     }
 
     /**
      * Generates a random vector-scalar equation in two dimensions.
      * 
-     * @return a string representation of a random vector-scalar equation in two dimensions.
+     * @param random the source of random numbers
+     * @param question the question to append the equation to
      */
-    private static String randomVecScalar2D() {
-        return Fraction.random().toString() + vector.random2D().toString();
+    private static void randomVecScalar2D(RandomGenerator random, StringBuilder question) {
+        Fraction.random(random).formatTo(question);
+        vector.random2D(random).formatTo(question);
     }
 
     /**
@@ -64,20 +72,32 @@ public class Quiz {
      * @param type the type of the question to generate
      * @return a string representation of the generated question
      */
-    private static String selectQuestion(questionType type) {
+    static String selectQuestion(questionType type) {
+        return selectQuestion(type, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Selects and generates a random question based on the given questionType, 
+     * so a seeded generator always gives the same question.
+     *
+     * @param type the type of the question to generate
+     * @param random the source of random numbers, like a seeded SplittableRandom
+     * @return a string representation of the generated question
+     */
+    static String selectQuestion(questionType type, RandomGenerator random) {
         switch (type) {
             case crossProduct:
-                return generateOperationQuestion(type).replace("@", "x");
+                return generateOperationQuestion(type, random, "x");
             case dotProduct:
-                return generateOperationQuestion(type).replace("@", "*");
+                return generateOperationQuestion(type, random, "*");
             case add:
-                return generateOperationQuestion(type).replace("@", "+");
+                return generateOperationQuestion(type, random, "+");
             case subtract:
-                return generateOperationQuestion(type).replace("@", "-");
+                return generateOperationQuestion(type, random, "-");
             case angle:
-                return generateAngleQuestion();
+                return generateAngleQuestion(random);
             default:
-                return generateComplexQuestion();
+                return generateComplexQuestion(random);
         }
     }
 
@@ -85,15 +105,64 @@ public class Quiz {
      * Generates a random question asking for the angle between two vectors.
      * The dimension of the vectors are 2D or 3D.
      *
+     * @param random the source of random numbers
      * @return a string representing the generated question.
      */
-    private static String generateAngleQuestion() {
-        int dimension = (int)(Math.random() * 2 + 1);
+    private static String generateAngleQuestion(RandomGenerator random) {
+        vector[] vectors = randomAnglePair(random);
+        return angleQuestion(vectors[0], vectors[1]);
+    }
+
+    /**
+     * Generates the two vectors of an angle question, both 2D or both 3D.
+     *
+     * @param random the source of random numbers
+     * @return the two vectors
+     */
+    private static vector[] randomAnglePair(RandomGenerator random) {
+        int dimension = random.nextInt(2) + 1;
         if (dimension == 1) {
-            return "Find angle between " + vector.random3D() + " and " + vector.random3D();
+            return new vector[] {vector.random3D(random), vector.random3D(random)};
         }
         else {
-            return "Find angle between " + vector.random2D() + " and " + vector.random2D();
+            return new vector[] {vector.random2D(random), vector.random2D(random)};
+        }
+    }
+
+    /**
+     * @param first the first vector
+     * @param second the second vector
+     * @return the question asking for the angle between the two vectors
+     */
+    private static String angleQuestion(vector first, vector second) {
+        return "Find angle between " + first + " and " + second;
+    }
+
+    /**
+     * Generates a question of the given type from a seed, together with its answer.
+     * The answer is calculated once here, so answers to the question are checked without calculating it again.
+     * Generated questions are calculated without the result cache and the result store, as they are rarely asked twice.
+     *
+     * @param type the type of the question to generate
+     * @param seed the seed of the question, the same seed always gives the same question
+     * @return the question with its answer
+     */
+    static QuizQuestion createQuestion(questionType type, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        if (type == questionType.angle) {
+            vector[] vectors = randomAnglePair(random);
+            try {
+                return new QuizQuestion(type, seed, angleQuestion(vectors[0], vectors[1]), QuizAnswer.angle(vector.angle(vectors[0], vectors[1])));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Generated vectors of different dimensions", e);
+            }
+        }
+
+        String text = selectQuestion(type, random);
+        try {
+            return new QuizQuestion(type, seed, text, QuizAnswer.of(ExpressionParser.parse(text).evaluate()));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Generated a question that can't be answered: " + text, e);
         }
     }
 
@@ -102,98 +171,60 @@ public class Quiz {
      * Returns a string representing the operation between two randomly generated vectors.
      * 
      * @param type the type of question to generate
+     * @param random the source of random numbers
+     * @param operator the symbol of the operation
      * @return a string representing the operation between two randomly generated vectors
      */
-    private static String generateOperationQuestion(questionType type) {
-        int dimension = (int)(Math.random() * 2 + 1);
+    private static String generateOperationQuestion(questionType type, RandomGenerator random, String operator) {
+        int dimension = random.nextInt(2) + 1;
         if (dimension == 1 && type != questionType.crossProduct) {
-            return vector.random2D() + " @ " + vector.random2D();
+            return vector.random2D(random) + " " + operator + " " + vector.random2D(random);
         }
         else {
-            return vector.random3D() + " @ " + vector.random3D();
+            return vector.random3D(random) + " " + operator + " " + vector.random3D(random);
         }
     }
 
     /**
      * Generates an operation question which has scalar multiplying, addition, subtraction, and cross product.
      * 
+     * @param random the source of random numbers
      * @return a string representing the generated complex vector question.
      */
-    private static String generateComplexQuestion() {
-        int equationLenght = 1 + (int)(Math.random() * 4 + 1);
-        int dimension = (int)(Math.random() * 2 + 1);
-        String question = "";
+    private static String generateComplexQuestion(RandomGenerator random) {
+        int equationLenght = 1 + random.nextInt(4) + 1;
+        int dimension = random.nextInt(2) + 1;
+        StringBuilder question = new StringBuilder();
 
         for (int i = 0; i < equationLenght; i++) {
+            if (i > 0) question.append(' ');
             if (dimension == 1) {
-                int operator = (int)(Math.random() * 2 + 1);
-                question += " " + randomVecScalar2D();
+                int operator = random.nextInt(2) + 1;
+                randomVecScalar2D(random, question);
                 if (operator == 1) {
-                    question += " +";
+                    question.append(" +");
                 }
                 else {
-                    question += " -";
+                    question.append(" -");
                 }
             }
             else {
-                int operator = (int)(Math.random() * 3 + 1);
-                question += " " + randomVecScalar3D();
+                int operator = random.nextInt(3) + 1;
+                randomVecScalar3D(random, question);
                 if (operator == 1) {
-                    question += " +";
+                    question.append(" +");
                 }
                 else if (operator == 2) {
-                    question += " -";
+                    question.append(" -");
                 }
                 else {
-                    question += " x";
+                    question.append(" x");
                 }
             }
         }
-        return question.substring(0, question.length() - 1).strip();
-    }
-
-    /**
-     * Returns the correct answer for a given vector equation.
-     *
-     * @param equation the vector equation to compute the answer for
-     * @param type the type of the question
-     * @return the correct answer to the vector equation as a string
-     * @throws IllegalAccessException if the equation is not a valid vector equation
-     */
-    private static String getCorrectAnswer(String equation, questionType type) throws IllegalAccessException {
-        if (type == questionType.angle) {
-            vector vec1 = vector.valueOf(equation.split("and")[0].replace("Find angle between", "").strip());
-            vector vec2 = vector.valueOf(equation.split("and")[1].strip());
-            return String.valueOf(vector.angle(vec1, vec2));
-        }
-        return VectorCalculator.calculate(equation);
-    }
-
-    /**
-     * Check if the given answer is correct for the given equation and question type.
-     *
-     * @param equation the vector equation for the question
-     * @param answer the user's answer to the question
-     * @param type the type of vector question
-     * @return true if the student's answer is correct, false otherwise
-     * @throws IllegalAccessException if the answer cannot be parsed or calculated
-     */
-    private static boolean isAnswerCorrect(String equation, String answer, questionType type) throws IllegalAccessException {
-        if (type == questionType.angle) {
-            return answer.strip().equals(getCorrectAnswer(equation, type));
-        }
-        else {
-            String holderAnswer = answer;
-            if (!answer.contains("[")) {
-                holderAnswer = "[" + answer + "]";
-            }
-
-            String rightAnswer = getCorrectAnswer(equation, type);
-            if (!rightAnswer.contains("[")) {
-                rightAnswer = "[" + rightAnswer + "]";
-            }
-            return vector.valueOf(holderAnswer).equals(vector.valueOf(rightAnswer));
-        }
+        // remove the operator after the last term
+        question.setLength(question.length() - 2);
+        return question.toString();
     }
 
     /**
@@ -202,46 +233,60 @@ public class Quiz {
      * If the user types "answer", the correct answer to the current question is displayed.
      * If the user's answer is correct, the next question is selected and the program continues.
      * If the user's answer is incorrect, the program prompts the user to try again.
+     * Every question, answer and revealed answer is written to the log, if there is one.
      * 
      * @param type of question to generate (cross product, dot product, add, subtract, angle, complex)
+     * @param log the log of the quiz session, or null to not log anything
      */
-    private static void runQuestion(questionType type) {
+    private static void runQuestion(questionType type, QuizLog log) {
         printInstructions();
 
         String userAns = "";
 
-        String question = selectQuestion(type);
+        QuizQuestion question = createQuestion(type, ThreadLocalRandom.current().nextLong());
+        long shownAt = logQuestion(log, question);
 
         int questionNumber = 1;
             
         while (!userAns.equals("exit")) {
-            System.out.println("\n\n" + questionNumber + ". Solve for: " + question);
+            System.out.println("\n\n" + questionNumber + ". Solve for: " + question.getText());
             System.out.println("Enter Answer: ");
             userAns = UserInput.getValue();
 
             if (!userAns.equals("exit")) {
 
                     if (userAns.equals("answer")) {
-                        try {
-                            String correctAns = getCorrectAnswer(question, type);
-                            System.out.println(String.format("\nCorrect answer to question %d was %s", questionNumber, correctAns));
-                            UserInput.pressEnter();
-                            question = selectQuestion(type);
-                            questionNumber++;
-                            continue;
-                        } catch (Exception e) {
-                            System.out.println("Something went wronge in creating the right answer:" + e.getMessage() + ". Try Again.");
-                            UserInput.pressEnter();
-                            continue;
+                        if (log != null) {
+                            try {
+                                log.logReveal(millisSince(shownAt));
+                            } catch (IOException e) {
+                                printLogError(e);
+                            }
                         }
+                        System.out.println(String.format("\nCorrect answer to question %d was %s", questionNumber, question.getAnswer()));
+                        UserInput.pressEnter();
+                        question = createQuestion(type, ThreadLocalRandom.current().nextLong());
+                        shownAt = logQuestion(log, question);
+                        questionNumber++;
+                        continue;
                     }
  
                     try {
-                        if (isAnswerCorrect(question, userAns, type)) {
+                        boolean correct = question.getAnswer().matches(userAns);
+                        if (log != null) {
+                            try {
+                                log.logAttempt(userAns, correct, millisSince(shownAt));
+                            } catch (IOException e) {
+                                printLogError(e);
+                            }
+                        }
+
+                        if (correct) {
                             System.out.println("\nCorrect!");
                             UserInput.pressEnter();
                             questionNumber++;
-                            question = selectQuestion(type);
+                            question = createQuestion(type, ThreadLocalRandom.current().nextLong());
+                            shownAt = logQuestion(log, question);
                         }
                         else {
                             System.out.println("\nIncorrect solution. Try Again.");
@@ -255,13 +300,67 @@ public class Quiz {
         }
     }
 
+    /**
+     * Writes a question that is about to be shown to the log.
+     *
+     * @param log the log of the quiz session, or null to not log anything
+     * @param question the question
+     * @return the time the question was shown, from System.nanoTime
+     */
+    private static long logQuestion(QuizLog log, QuizQuestion question) {
+        if (log != null) {
+            try {
+                log.logQuestion(question);
+            } catch (IOException e) {
+                printLogError(e);
+            }
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * @param start a time from System.nanoTime
+     * @return the milliseconds since the start
+     */
+    private static long millisSince(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * Tells the user that the log could not be written. The quiz keeps running without it.
+     *
+     * @param e the error of writing the log
+     */
+    private static void printLogError(IOException e) {
+        System.out.println("Could not write the quiz log: " + e.getMessage());
+    }
+
     /**
      * Runs the quiz program. Prompts the user to select a question type to generate a question
      * and receive user input for an answer. 
      */
     public static void runQuiz() {
+        runQuiz(null);
+    }
+
+    /**
+     * Runs the quiz program like runQuiz(), asking for the name of the user first and
+     * writing the session to the log.
+     *
+     * @param log the log the session is written to, or null to not log anything
+     */
+    public static void runQuiz(QuizLog log) {
         String userAns = "";
 
+        if (log != null) {
+            System.out.println("\nEnter your name: ");
+            try {
+                log.startSession(UserInput.getValue());
+            } catch (IOException e) {
+                printLogError(e);
+            }
+        }
+
         printIntro();
 
         while (!userAns.equals("7")) {
@@ -269,22 +368,22 @@ public class Quiz {
             userAns = UserInput.getValue();
 
             if (userAns.equals("1")) {
-                runQuestion(questionType.crossProduct);
+                runQuestion(questionType.crossProduct, log);
             }
             else if (userAns.equals("2")) {
-                runQuestion(questionType.dotProduct);
+                runQuestion(questionType.dotProduct, log);
             }
             else if (userAns.equals("3")) {
-                runQuestion(questionType.subtract);
+                runQuestion(questionType.subtract, log);
             }
             else if (userAns.equals("4")) {
-                runQuestion(questionType.add);
+                runQuestion(questionType.add, log);
             }
             else if (userAns.equals("5")) {
-                runQuestion(questionType.angle);
+                runQuestion(questionType.angle, log);
             }
             else if (userAns.equals("6")) {
-                runQuestion(questionType.complex);
+                runQuestion(questionType.complex, log);
             }
             else if (!userAns.equals("7")) {
                 System.out.println("\nWronge Input.");
@@ -296,18 +395,31 @@ public class Quiz {
     }
 
     public static void test() throws IllegalAccessException {
-        System.out.println(getCorrectAnswer("Find angle between [9, 1, 8 5/8] and [5 1/4, 6, 5 1/2]", questionType.angle)); //34
-        System.out.println(getCorrectAnswer("5/6[3, 7, 8] x 5/6[3, 7, 8]", questionType.crossProduct)); //[0, 0, 0]
-        System.out.println(getCorrectAnswer("5/6[3, 7, 8] + 5/6[3, 7, 8]", questionType.add)); //[5, 11 2/3, 13 1/3]
-        System.out.println(getCorrectAnswer("5/6[3, 7, 8] - 5/6[3, 7, 8]", questionType.subtract)); //[0, 0, 0]
-        System.out.println(getCorrectAnswer("5/6[3, 7, 8] * 5/6[3, 7, 8]", questionType.dotProduct)); //84 13/18
-        System.out.println(getCorrectAnswer("5/6[3, 7, 8] + 5/6[3, 7, 8] + 5/6[3, 7, 8] x 5/6[3, 7, 8]", questionType.complex));
-
-        System.out.println(isAnswerCorrect("5/6[3, 7, 8] x 5/6[3, 7, 8]", "[0, 0, 0]", questionType.crossProduct));
-        System.out.println(isAnswerCorrect("5/6[3, 7, 8] x 5/6[3, 7, 8]", "[6, 0, 0]", questionType.crossProduct));
-        System.out.println(isAnswerCorrect("5/6[3, 7, 8] + 5/6[3, 7, 8]", "[0, 0, 0]", questionType.add));
-        System.out.println(isAnswerCorrect("5/6[3, 7, 8] * 5/6[3, 7, 8]", "[84 13/18]", questionType.crossProduct));
-        System.out.println(isAnswerCorrect("5/6[3, 7, 8] + 5/6[3, 7, 8] + 5/6[3, 7, 8] x 5/6[3, 7, 8]", "[5, 11 2/3, 13 1/3]", questionType.crossProduct));
+        QuizQuestion crossProduct = createQuestion(questionType.crossProduct, 1);
+        System.out.println(crossProduct.getText()); //[6, 1/8, 2 1/3] x [8, 8, 1/2]
+        System.out.println(crossProduct.getAnswer()); //[-18 29/48, 15 2/3, 47]
+        System.out.println(crossProduct.getAnswer().matches(VectorCalculator.calculate(crossProduct.getText()))); //true
+        System.out.println(crossProduct.getAnswer().matches("[6, 0, 0]")); //false
+
+        QuizQuestion dotProduct = createQuestion(questionType.dotProduct, 2);
+        System.out.println(dotProduct.getText()); //[10, 7 1/4] * [1 1/3, 5 1/7]
+        System.out.println(dotProduct.getAnswer()); //50 13/21
+        System.out.println(dotProduct.getAnswer().matches(VectorCalculator.calculate(dotProduct.getText()))); //true
+        System.out.println(dotProduct.getAnswer().matches("[0, 0, 0]")); //false
+
+        QuizQuestion add = createQuestion(questionType.add, 3);
+        System.out.println(add.getAnswer().matches(VectorCalculator.calculate(add.getText()))); //true
+        QuizQuestion subtract = createQuestion(questionType.subtract, 4);
+        System.out.println(subtract.getAnswer().matches(VectorCalculator.calculate(subtract.getText()))); //true
+        QuizQuestion complex = createQuestion(questionType.complex, 5);
+        System.out.println(complex.getAnswer().matches(VectorCalculator.calculate(complex.getText()))); //true
+
+        QuizQuestion angle = createQuestion(questionType.angle, 6);
+        System.out.println(angle.getText()); //Find angle between [4 1/4, 4, 5] and [1 3/7, 5/7, 10 5/9]
+        System.out.println(angle.getAnswer()); //41
+        System.out.println(angle.getAnswer().matches("41")); //true
+        System.out.println(angle.getAnswer().matches("40")); //false
+        System.out.println(createQuestion(questionType.angle, 42).getText().equals(createQuestion(questionType.angle, 42).getText())); //true
     }
 
     public static void main(String[] args) throws IllegalAccessException {
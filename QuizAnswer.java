@@ -0,0 +1,114 @@
+/**
+* The correct answer to a quiz question, kept as a value so submissions are compared without calculating the question again.
+* Equivalent forms are accepted: 3/2, 1 1/2 and 6/4 are the same, and a scalar can be written as 5 or [5].
+*/
+class QuizAnswer {
+
+    enum answerType {
+        vector,
+        scalar,
+        angle
+    }
+
+    private final answerType type;
+    // the answer of vector and scalar questions, a scalar is a 1D vector
+    private final vector value;
+    // the answer of angle questions in whole degrees
+    private final int degrees;
+
+    /**
+     * @param type the type of the answer
+     * @param value the vector or scalar answer, null for angles
+     * @param degrees the angle answer, 0 for vectors and scalars
+     */
+    private QuizAnswer(answerType type, vector value, int degrees) {
+        this.type = type;
+        this.value = value;
+        this.degrees = degrees;
+    }
+
+    /**
+     * Creates the answer of a calculated question. A 1D result is a scalar answer.
+     *
+     * @param value the calculated result
+     * @return the answer
+     */
+    public static QuizAnswer of(vector value) {
+        return new QuizAnswer(value.getDimension() == 1 ? answerType.scalar : answerType.vector, value, 0);
+    }
+
+    /**
+     * Creates the answer of an angle question.
+     *
+     * @param degrees the angle rounded to whole degrees
+     * @return the answer
+     */
+    public static QuizAnswer angle(int degrees) {
+        return new QuizAnswer(answerType.angle, null, degrees);
+    }
+
+    /**
+     * @return the type of the answer: vector, scalar or angle
+     */
+    public answerType getType() {
+        return type;
+    }
+
+    /**
+     * @return the vector or scalar answer, null for angles
+     */
+    vector getValue() {
+        return value;
+    }
+
+    /**
+     * @return the angle answer in whole degrees, 0 for vectors and scalars
+     */
+    int getDegrees() {
+        return degrees;
+    }
+
+    /**
+     * Checks if a submitted answer has the same value as this answer.
+     * Angles are compared as whole numbers. Vectors and scalars are compared as fractions, in any form,
+     * and a scalar can be submitted with or without square brackets.
+     *
+     * @param submission the answer typed in by the user
+     * @return boolean - true if the submission is correct, false otherwise
+     * @throws IllegalAccessException if the submission is not a number or vector in the right format
+     */
+    public boolean matches(String submission) throws IllegalAccessException {
+        String answer = submission.strip();
+        if (type == answerType.angle) {
+            try {
+                return Integer.parseInt(answer) == degrees;
+            } catch (NumberFormatException e) {
+                throw new IllegalAccessException("Angle must be a whole number");
+            }
+        }
+
+        vector submitted;
+        if (answer.startsWith("[")) {
+            submitted = vector.valueOf(answer);
+        }
+        else {
+            try {
+                submitted = new vector(Fraction.valueOf(answer));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalAccessException(e.getMessage());
+            }
+        }
+        return submitted.isDimensionSame(value) && submitted.equals(value);
+    }
+
+    /**
+     * Converts the answer to a string like VectorCalculator.format, with the angle in whole degrees.
+     *
+     * @return the answer as a string
+     */
+    @Override
+    public String toString() {
+        if (type == answerType.angle) return Integer.toString(degrees);
+        return VectorCalculator.format(value);
+    }
+}
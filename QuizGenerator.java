@@ -0,0 +1,100 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+* Generates reproducible sets of quiz questions with their answers. Question i of a set with seed s is generated
+* from its own seed, derived from s and i, so every question can be generated again on its own and the set can be
+* generated in parallel in any order.
+*/
+class QuizGenerator {
+    // the increment SplittableRandom itself uses between seeds
+    private static final long SEED_GAMMA = 0x9E3779B97F4A7C15L;
+    // the number of questions generated in parallel before they are written to the file
+    private static final int CHUNK_SIZE = 4096;
+
+    /**
+     * Returns the seed of a question in a set.
+     *
+     * @param setSeed the seed of the whole set
+     * @param index the index of the question in the set
+     * @return the seed of the question
+     */
+    public static long questionSeed(long setSeed, long index) {
+        // SplittableRandom steps its seed by SEED_GAMMA, so seeds a multiple of it apart would give the same
+        // numbers shifted by one. Mixing the bits makes the seeds of neighbouring questions unrelated.
+        long seed = setSeed + index * SEED_GAMMA;
+        seed = (seed ^ (seed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        seed = (seed ^ (seed >>> 27)) * 0x94D049BB133111EBL;
+        return seed ^ (seed >>> 31);
+    }
+
+    /**
+     * Generates a single question and calculates its answer.
+     *
+     * @param type the type of the question
+     * @param seed the seed of the question
+     * @return the generated question, always the same for the same type and seed
+     */
+    public static QuizQuestion generate(Quiz.questionType type, long seed) {
+        return Quiz.createQuestion(type, seed);
+    }
+
+    /**
+     * Generates a set of questions in parallel, in the order of their index.
+     *
+     * @param type the type of the questions
+     * @param count the number of questions
+     * @param setSeed the seed of the whole set
+     * @return the generated questions
+     * @throws IllegalArgumentException if count is negative
+     */
+    public static List<QuizQuestion> generate(Quiz.questionType type, int count, long setSeed) {
+        if (count < 0) throw new IllegalArgumentException("Count can't be negative");
+        return generateRange(type, setSeed, 0, count);
+    }
+
+    /**
+     * Generates a set of questions in parallel chunks and writes them to a file as they are generated,
+     * one question per line as the seed, the question and the answer separated by tabs.
+     *
+     * @param type the type of the questions
+     * @param count the number of questions
+     * @param setSeed the seed of the whole set
+     * @param file the file to write, replaced if it exists
+     * @throws IOException if the file can't be written
+     * @throws IllegalArgumentException if count is negative
+     */
+    public static void writeQuestions(Quiz.questionType type, long count, long setSeed, Path file) throws IOException {
+        if (count < 0) throw new IllegalArgumentException("Count can't be negative");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (long start = 0; start < count; start += CHUNK_SIZE) {
+                for (QuizQuestion question : generateRange(type, setSeed, start, Math.min(count, start + CHUNK_SIZE))) {
+                    writer.write(question.toString());
+                    writer.newLine();
+                }
+            }
+        }
+    }
+
+    /**
+     * Generates the questions of a set from one index up to another in parallel.
+     *
+     * @param type the type of the questions
+     * @param setSeed the seed of the whole set
+     * @param start the index of the first question
+     * @param end the index after the last question
+     * @return the generated questions in the order of their index
+     */
+    private static List<QuizQuestion> generateRange(Quiz.questionType type, long setSeed, long start, long end) {
+        return LongStream.range(start, end)
+                .parallel()
+                .mapToObj(index -> generate(type, questionSeed(setSeed, index)))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,259 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+* Appends quiz sessions to a binary log file: who started a session, every question they got with its answer,
+* every attempt with whether it was correct and how long it took, and every revealed answer.
+* Records are collected in a buffer and written to the file when it is full, and the file is synced
+* to the disk at most once a second and when the log is closed. QuizLogReplay reads the log back.
+*
+* The file starts with the bytes "VQL" and the format version, followed by records. Every record starts with its type:
+*   session:  epoch millis (varint), user name (varint length and UTF-8 bytes)
+*   question: millis since the session started (varint), question type (byte), seed (8 bytes), answer
+*   attempt:  millis since the question was shown (varint), correct (byte), submission (varint length and UTF-8 bytes)
+*   reveal:   millis since the question was shown (varint)
+* An answer is its type (byte), then the degrees of an angle (zigzag varint) or the dimension (varint) and the components,
+* written as BinaryFormat fractions.
+* One log file should only be written by one process at a time.
+*/
+class QuizLog implements Closeable {
+    static final byte[] MAGIC = {'V', 'Q', 'L'};
+    static final byte VERSION = 1;
+
+    static final byte SESSION_RECORD = 1;
+    static final byte QUESTION_RECORD = 2;
+    static final byte ATTEMPT_RECORD = 3;
+    static final byte REVEAL_RECORD = 4;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long SYNC_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private long sessionStartMillis;
+    private long lastSyncNanos = System.nanoTime();
+
+    /**
+     * @param channel the channel of the log file, positioned at its end
+     */
+    private QuizLog(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Opens a log file for appending, creating it with a header if it doesn't exist or is empty.
+     * The existing log is read first to check it and to find the end of its last complete record.
+     *
+     * @param file the log file
+     * @return the opened log
+     * @throws IOException if the file can't be opened or is not a valid quiz log
+     */
+    public static QuizLog open(Path file) throws IOException {
+        long validLength = Files.exists(file) && Files.size(file) > 0 ? QuizLogReplay.replay(file).getValidLength() : 0;
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            QuizLog log = new QuizLog(channel);
+            if (validLength == 0) {
+                log.buffer.put(MAGIC).put(VERSION);
+            }
+            // drop a record cut off when the program stopped while writing, so the new records can be read
+            channel.truncate(validLength);
+            channel.position(validLength);
+            return log;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Starts a new session. The following questions and attempts belong to this user until the next session.
+     *
+     * @param user the name of the user
+     * @throws IOException if the log can't be written
+     */
+    public void startSession(String user) throws IOException {
+        sessionStartMillis = System.currentTimeMillis();
+        byte[] name = user.getBytes(StandardCharsets.UTF_8);
+        reserve(1 + 2 * 10 + name.length);
+        buffer.put(SESSION_RECORD);
+        BinaryFormat.putVarLong(buffer, sessionStartMillis);
+        BinaryFormat.putVarLong(buffer, name.length);
+        buffer.put(name);
+        afterRecord();
+    }
+
+    /**
+     * Records a question that was shown to the user, with its answer.
+     *
+     * @param question the question
+     * @throws IOException if the log can't be written
+     */
+    public void logQuestion(QuizQuestion question) throws IOException {
+        QuizAnswer answer = question.getAnswer();
+        int dimension = answer.getType() == QuizAnswer.answerType.angle ? 0 : answer.getValue().getDimension();
+        reserve(1 + 10 + 1 + 8 + 1 + 10);
+        buffer.put(QUESTION_RECORD);
+        BinaryFormat.putVarLong(buffer, Math.max(0, System.currentTimeMillis() - sessionStartMillis));
+        buffer.put((byte)question.getType().ordinal());
+        buffer.putLong(question.getSeed());
+        buffer.put((byte)answer.getType().ordinal());
+        if (answer.getType() == QuizAnswer.answerType.angle) {
+            BinaryFormat.putVarLong(buffer, BinaryFormat.zigzag(answer.getDegrees()));
+        }
+        else {
+            BinaryFormat.putVarLong(buffer, dimension);
+            for (Fraction component : answer.getValue().getComponents()) {
+                putFraction(component);
+            }
+        }
+        afterRecord();
+    }
+
+    /**
+     * Records an answer the user typed in.
+     *
+     * @param submission the answer as typed in
+     * @param correct true if the answer was correct
+     * @param elapsedMillis the time since the question was shown
+     * @throws IOException if the log can't be written
+     */
+    public void logAttempt(String submission, boolean correct, long elapsedMillis) throws IOException {
+        byte[] text = submission.getBytes(StandardCharsets.UTF_8);
+        reserve(1 + 10 + 1 + 10 + text.length);
+        buffer.put(ATTEMPT_RECORD);
+        BinaryFormat.putVarLong(buffer, Math.max(0, elapsedMillis));
+        buffer.put((byte)(correct ? 1 : 0));
+        BinaryFormat.putVarLong(buffer, text.length);
+        buffer.put(text);
+        afterRecord();
+    }
+
+    /**
+     * Records that the user asked for the answer instead of solving the question.
+     *
+     * @param elapsedMillis the time since the question was shown
+     * @throws IOException if the log can't be written
+     */
+    public void logReveal(long elapsedMillis) throws IOException {
+        reserve(1 + 10);
+        buffer.put(REVEAL_RECORD);
+        BinaryFormat.putVarLong(buffer, Math.max(0, elapsedMillis));
+        afterRecord();
+    }
+
+    /**
+     * Writes the buffered records to the file and syncs the file to the disk.
+     *
+     * @throws IOException if the file can't be written
+     */
+    public void sync() throws IOException {
+        writeBuffer();
+        channel.force(false);
+        lastSyncNanos = System.nanoTime();
+    }
+
+    /**
+     * Writes the remaining records, syncs them to the disk and closes the file.
+     *
+     * @throws IOException if the file can't be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Makes room in the buffer for a record, writing the buffer to the file if needed.
+     *
+     * @param maxSize the largest size the record can have
+     * @throws IOException if the file can't be written
+     */
+    private void reserve(int maxSize) throws IOException {
+        if (buffer.remaining() < maxSize) writeBuffer();
+        if (buffer.remaining() < maxSize) throw new IOException("Record is larger than " + BUFFER_SIZE + " bytes");
+    }
+
+    /**
+     * Syncs the file if the last sync was more than a second ago.
+     *
+     * @throws IOException if the file can't be written
+     */
+    private void afterRecord() throws IOException {
+        if (System.nanoTime() - lastSyncNanos >= SYNC_INTERVAL_NANOS) sync();
+    }
+
+    /**
+     * Writes the content of the buffer to the end of the file.
+     *
+     * @throws IOException if the file can't be written
+     */
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes a fraction, making room for it in the buffer first.
+     *
+     * @param value the fraction to write
+     * @throws IOException if the file can't be written
+     */
+    private void putFraction(Fraction value) throws IOException {
+        reserve(BinaryFormat.maxFractionSize(value));
+        BinaryFormat.putFraction(buffer, value);
+    }
+
+    /**
+     * Checks that a file starts with the header of a quiz log.
+     *
+     * @param header the first bytes of the file
+     * @param file the file, for the error message
+     * @throws IOException if the header is not the header of a quiz log of this version
+     */
+    static void checkHeader(ByteBuffer header, Path file) throws IOException {
+        for (byte expected : MAGIC) {
+            if (!header.hasRemaining() || header.get() != expected) throw new IOException(file + " is not a quiz log");
+        }
+        if (!header.hasRemaining() || header.get() != VERSION) throw new IOException(file + " has an unsupported quiz log version");
+    }
+
+    public static void test() throws IOException {
+        Fraction big = Fraction.of(new BigInteger("270000000000000000001"), BigInteger.valueOf(7));
+        ByteBuffer encoded = ByteBuffer.allocate(BinaryFormat.maxFractionSize(big));
+        BinaryFormat.putFraction(encoded, big);
+        encoded.flip();
+        System.out.println(BinaryFormat.getFraction(encoded)); //38571428571428571428 5/7
+        System.out.println(encoded.hasRemaining()); //false
+
+        Path file = Files.createTempFile("quiz", ".log");
+        try {
+            Files.delete(file);
+            try (QuizLog log = QuizLog.open(file)) {
+                log.startSession("test");
+                log.logQuestion(new QuizQuestion(Quiz.questionType.complex, 42, "9000000000000000000 * 30[1/7, 1]",
+                        QuizAnswer.of(new vector(big, Fraction.of(new BigInteger("270000000000000000000"), BigInteger.ONE)))));
+                log.logAttempt("[38571428571428571428 5/7, 270000000000000000000]", true, 1000);
+            }
+            QuizLogReplay replay = QuizLogReplay.replay(file);
+            System.out.println(replay.getRecordCount()); //3
+            System.out.println(replay.getValidLength() == Files.size(file)); //true
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
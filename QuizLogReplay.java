@@ -0,0 +1,248 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+* Reads a quiz log written by QuizLog and adds up the results of every user:
+* how many questions they were shown, how many they solved and how long it took them.
+* The log is read in large blocks and decoded in place, and a record cut off at the end of the file,
+* which happens if the program stopped while writing it, is ignored.
+*/
+class QuizLogReplay {
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    /**
+    * The results of one user over all their sessions
+    */
+    static final class UserStats {
+        long sessions;
+        long questions;
+        long attempts;
+        long correct;
+        long revealed;
+        // questions solved without an incorrect attempt before
+        long solvedFirstTry;
+        // the total time from showing a question until it was solved
+        long solveMillis;
+        final long[] questionsByType = new long[Quiz.questionType.values().length];
+        final long[] solvedByType = new long[Quiz.questionType.values().length];
+
+        /**
+         * @return the share of attempts that were correct, between 0 and 1
+         */
+        double accuracy() {
+            return attempts == 0 ? 0 : (double)correct / attempts;
+        }
+
+        /**
+         * @return the average milliseconds it took to solve a question
+         */
+        double averageSolveMillis() {
+            return correct == 0 ? 0 : (double)solveMillis / correct;
+        }
+    }
+
+    private final Map<String, UserStats> users = new TreeMap<>();
+    private long records;
+    // the length of the file up to the end of the last complete record
+    private long validLength;
+    // the user and question the next records belong to
+    private UserStats currentUser;
+    private int currentType = -1;
+    private boolean attempted;
+
+    /**
+     * Reads a quiz log and adds up the results of every user.
+     *
+     * @param file the log file
+     * @return the replayed log
+     * @throws IOException if the file can't be read or is not a valid quiz log
+     */
+    public static QuizLogReplay replay(Path file) throws IOException {
+        QuizLogReplay replay = new QuizLogReplay();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            boolean more = fill(channel, buffer);
+            QuizLog.checkHeader(buffer, file);
+            // the position in the file of the start of the buffer
+            long bufferOffset = 0;
+            replay.validLength = buffer.position();
+
+            while (true) {
+                int recordStart = buffer.position();
+                try {
+                    replay.readRecord(buffer, file);
+                    replay.validLength = bufferOffset + buffer.position();
+                } catch (BufferUnderflowException e) {
+                    // the record continues past the buffer, or the file ends in the middle of it
+                    buffer.position(recordStart);
+                    if (!more) break;
+                    if (recordStart == 0 && buffer.limit() == buffer.capacity()) {
+                        // a single record larger than the buffer
+                        buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer);
+                    }
+                    else {
+                        buffer.compact();
+                        bufferOffset += recordStart;
+                    }
+                    more = fill(channel, buffer);
+                }
+            }
+        }
+        return replay;
+    }
+
+    /**
+     * Reads from the channel until the buffer is full or the file ends, and flips the buffer for reading.
+     *
+     * @param channel the channel of the log file
+     * @param buffer the buffer in write mode
+     * @return boolean - true if the file can have more bytes, false if the end of the file was reached
+     * @throws IOException if the file can't be read
+     */
+    private static boolean fill(FileChannel channel, ByteBuffer buffer) throws IOException {
+        boolean more = true;
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                more = false;
+                break;
+            }
+        }
+        buffer.flip();
+        return more;
+    }
+
+    /**
+     * Decodes one record and adds it to the results.
+     *
+     * @param in the buffer, positioned at the start of the record
+     * @param file the log file, for error messages
+     * @throws IOException if the record has an unknown type
+     * @throws BufferUnderflowException if the record continues past the buffer
+     */
+    private void readRecord(ByteBuffer in, Path file) throws IOException {
+        byte recordType = in.get();
+        switch (recordType) {
+            case QuizLog.SESSION_RECORD: {
+                BinaryFormat.getVarLong(in);
+                byte[] name = new byte[BinaryFormat.checkLength(in, BinaryFormat.getVarLong(in))];
+                in.get(name);
+                currentUser = users.computeIfAbsent(new String(name, StandardCharsets.UTF_8), user -> new UserStats());
+                currentUser.sessions++;
+                currentType = -1;
+                break;
+            }
+            case QuizLog.QUESTION_RECORD: {
+                BinaryFormat.getVarLong(in);
+                int type = in.get();
+                in.getLong();
+                skipAnswer(in, file);
+                if (type < 0 || type >= Quiz.questionType.values().length) throw new IOException(file + " has an unknown question type " + type);
+                if (currentUser == null) throw new IOException(file + " has a question before the first session");
+                currentType = type;
+                attempted = false;
+                currentUser.questions++;
+                currentUser.questionsByType[type]++;
+                break;
+            }
+            case QuizLog.ATTEMPT_RECORD: {
+                long elapsed = BinaryFormat.getVarLong(in);
+                boolean correct = in.get() != 0;
+                BinaryFormat.skip(in, BinaryFormat.getVarLong(in));
+                if (currentType < 0) throw new IOException(file + " has an answer without a question");
+                currentUser.attempts++;
+                if (correct) {
+                    currentUser.correct++;
+                    currentUser.solvedByType[currentType]++;
+                    currentUser.solveMillis += elapsed;
+                    if (!attempted) currentUser.solvedFirstTry++;
+                }
+                attempted = true;
+                break;
+            }
+            case QuizLog.REVEAL_RECORD: {
+                BinaryFormat.getVarLong(in);
+                if (currentType < 0) throw new IOException(file + " has a revealed answer without a question");
+                currentUser.revealed++;
+                break;
+            }
+            default:
+                throw new IOException(file + " has an unknown record type " + recordType);
+        }
+        records++;
+    }
+
+    /**
+     * Skips the answer of a question record, it is only needed to check the answers again.
+     *
+     * @param in the buffer, positioned at the answer
+     * @param file the file, for the error message
+     * @throws BufferUnderflowException if the answer continues past the buffer
+     * @throws IOException if the answer has an unknown type
+     */
+    private static void skipAnswer(ByteBuffer in, Path file) throws IOException {
+        int type = in.get();
+        if (type < 0 || type >= QuizAnswer.answerType.values().length) throw new IOException(file + " has an unknown answer type " + type);
+        if (type == QuizAnswer.answerType.angle.ordinal()) {
+            BinaryFormat.getVarLong(in);
+            return;
+        }
+        long dimension = BinaryFormat.getVarLong(in);
+        for (long i = 0; i < dimension; i++) {
+            BinaryFormat.skipFraction(in);
+        }
+    }
+
+    /**
+     * @return the results of every user, sorted by name
+     */
+    public Map<String, UserStats> getUsers() {
+        return users;
+    }
+
+    /**
+     * @return the number of records that were read
+     */
+    public long getRecordCount() {
+        return records;
+    }
+
+    /**
+     * Returns the length of the log without a record cut off at the end.
+     *
+     * @return the number of bytes up to the end of the last complete record
+     */
+    public long getValidLength() {
+        return validLength;
+    }
+
+    /**
+     * Prints a table with the results of every user and the questions they solved by type.
+     *
+     * @param out the stream to print to
+     */
+    public void printStats(PrintStream out) {
+        out.println(String.format("%-20s %8s %9s %8s %8s %9s %9s %10s", "User", "Sessions", "Questions", "Attempts", "Correct", "First try", "Revealed", "Avg time"));
+        for (Map.Entry<String, UserStats> entry : users.entrySet()) {
+            UserStats stats = entry.getValue();
+            out.println(String.format("%-20s %8d %9d %8d %8d %9d %9d %9.1fs", entry.getKey(), stats.sessions, stats.questions,
+                    stats.attempts, stats.correct, stats.solvedFirstTry, stats.revealed, stats.averageSolveMillis() / 1000));
+
+            StringBuilder byType = new StringBuilder("    solved:");
+            for (Quiz.questionType type : Quiz.questionType.values()) {
+                if (stats.questionsByType[type.ordinal()] == 0) continue;
+                byType.append(' ').append(type).append(' ')
+                        .append(stats.solvedByType[type.ordinal()]).append('/').append(stats.questionsByType[type.ordinal()]);
+            }
+            out.println(byType);
+        }
+        out.println(String.format("%d records, %d users", records, users.size()));
+    }
+}
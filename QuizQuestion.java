@@ -0,0 +1,60 @@
+/**
+* A generated quiz question together with its answer and the seed that reproduces it
+*/
+class QuizQuestion {
+    private final Quiz.questionType type;
+    private final long seed;
+    private final String text;
+    private final QuizAnswer answer;
+
+    /**
+     * @param type the type of the question
+     * @param seed the seed the question was generated from
+     * @param text the question as shown to the user
+     * @param answer the correct answer to the question
+     */
+    QuizQuestion(Quiz.questionType type, long seed, String text, QuizAnswer answer) {
+        this.type = type;
+        this.seed = seed;
+        this.text = text;
+        this.answer = answer;
+    }
+
+    /**
+     * @return the type of the question
+     */
+    public Quiz.questionType getType() {
+        return type;
+    }
+
+    /**
+     * @return the seed that generates this question again with Quiz.createQuestion(type, seed)
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return the question as shown to the user
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return the correct answer to the question
+     */
+    public QuizAnswer getAnswer() {
+        return answer;
+    }
+
+    /**
+     * Converts the question to a line of the question bank: the seed, the question and the answer separated by tabs.
+     *
+     * @return the question as a tab separated line
+     */
+    @Override
+    public String toString() {
+        return seed + "\t" + text + "\t" + answer;
+    }
+}
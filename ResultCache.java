@@ -0,0 +1,160 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** 
+* A bounded, thread safe cache of calculated equations which evicts the least recently used result
+*/
+class ResultCache {
+    private final int capacity;
+    private final LinkedHashMap<String, vector> results;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param capacity the maximum number of results kept in the cache
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public ResultCache(int capacity) throws IllegalArgumentException {
+        if (capacity <= 0) throw new IllegalArgumentException("Cache capacity must be positive");
+        this.capacity = capacity;
+        this.results = new LinkedHashMap<String, vector>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, vector> eldest) {
+                if (size() > ResultCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached result of an equation and counts the lookup as a hit or a miss.
+     *
+     * @param key the normalized equation
+     * @return the cached result, or null if the equation is not in the cache
+     */
+    public synchronized vector get(String key) {
+        vector result = results.get(key);
+        if (result == null) {
+            misses++;
+        }
+        else {
+            hits++;
+        }
+        return result;
+    }
+
+    /**
+     * Stores the result of an equation, evicting the least recently used result if the cache is full.
+     *
+     * @param key the normalized equation
+     * @param result the calculated result
+     */
+    public synchronized void put(String key, vector result) {
+        results.put(key, result);
+    }
+
+    /**
+     * Removes every result from the cache and resets the counters.
+     */
+    public synchronized void clear() {
+        results.clear();
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    /**
+     * Returns the maximum number of results kept in the cache.
+     *
+     * @return the capacity of the cache
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of results currently in the cache.
+     *
+     * @return the number of cached results
+     */
+    public synchronized int size() {
+        return results.size();
+    }
+
+    /**
+     * Returns the number of lookups that found a cached result.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that did not find a cached result.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of results removed to make room for new ones.
+     *
+     * @return the number of evictions
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Removes the whitespace that does not change the meaning of an equation so that 
+     * equations which only differ in spacing share a cache entry. A space is only kept
+     * between two numbers, like in "5 1/2", after a "-" in front of a number, as "- 5" is not a negative number,
+     * and between a number and a "-", as "2 -1/2" is a mixed number but "2-1/2" is a subtraction.
+     *
+     * @param equation the equation to normalize
+     * @return the equation without redundant whitespace
+     */
+    public static String normalize(CharSequence equation) {
+        StringBuilder normalized = new StringBuilder(equation.length());
+        boolean pendingSpace = false;
+
+        for (int i = 0; i < equation.length(); i++) {
+            char current = equation.charAt(i);
+            if (Character.isWhitespace(current)) {
+                pendingSpace = normalized.length() > 0;
+                continue;
+            }
+            if (pendingSpace && (isDigit(current) || current == '-')) {
+                char previous = normalized.charAt(normalized.length() - 1);
+                if (isDigit(previous) || (previous == '-' && isDigit(current))) {
+                    normalized.append(' ');
+                }
+            }
+            pendingSpace = false;
+            normalized.append(current);
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Checks if a character is an ASCII digit.
+     *
+     * @param character the character to check
+     * @return boolean - true if the character is between 0 and 9, false otherwise
+     */
+    private static boolean isDigit(char character) {
+        return character >= '0' && character <= '9';
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ResultCache[size=%d/%d, hits=%d, misses=%d, evictions=%d]", results.size(), capacity, hits, misses, evictions);
+    }
+}
@@ -0,0 +1,468 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+* A store of calculated equations kept in a file, so results are not calculated again in the next run of the program.
+* The file is read the first time the store is used, and new results are appended to it by a background thread,
+* so a calculation never waits for the disk. When the results take more than the maximum size, the least recently
+* used results are dropped, and once the file grows to twice the maximum size it is rewritten with only the kept results.
+*
+* The file starts with the bytes "VRS" and the format version, followed by one record per result: the normalized equation
+* (varint length and UTF-8 bytes), the dimension (varint) and the components as BinaryFormat fractions.
+* A later record of an equation replaces an earlier one. The file is synced to the disk when the store is closed,
+* results written after the last sync can be lost, which only means they are calculated again.
+* One store file should only be used by one process at a time.
+*/
+class ResultStore implements Closeable {
+    static final byte[] MAGIC = {'V', 'R', 'S'};
+    static final byte VERSION = 1;
+    // the default largest size of the kept results
+    static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    // the largest records written with a single call
+    private static final int WRITE_BATCH_SIZE = 1024;
+    // queued after the last record to stop the writer thread
+    private static final byte[] END = new byte[0];
+
+    /**
+    * A stored result, decoded from its record the first time it is used
+    */
+    private static final class Entry {
+        final byte[] record;
+        // the index of the dimension in the record, after the equation
+        final int valueOffset;
+        vector value;
+
+        /**
+         * @param record the encoded record of the result
+         * @param valueOffset the index of the dimension in the record
+         * @param value the result, or null to decode it from the record when it is used
+         */
+        Entry(byte[] record, int valueOffset, vector value) {
+            this.record = record;
+            this.valueOffset = valueOffset;
+            this.value = value;
+        }
+    }
+
+    private final Path file;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> results = new LinkedHashMap<>(16, 0.75f, true);
+    private final BlockingQueue<byte[]> pending = new LinkedBlockingQueue<>();
+    private boolean loaded;
+    private boolean closed;
+    // the total size of the records of the kept results
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private volatile IOException error;
+
+    // only used by the writer thread once the file is loaded
+    private Thread writer;
+    private FileChannel channel;
+    private long fileSize;
+
+    /**
+     * @param file the store file
+     * @param maxBytes the largest size of the kept results
+     */
+    private ResultStore(Path file, long maxBytes) {
+        this.file = file;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Creates a store backed by a file, which is created if it doesn't exist. The file is only read when the store is first used.
+     *
+     * @param file the store file
+     * @return the store
+     */
+    public static ResultStore open(Path file) {
+        return open(file, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Creates a store backed by a file, which is created if it doesn't exist. The file is only read when the store is first used.
+     *
+     * @param file the store file
+     * @param maxBytes the largest size of the kept results, the file can grow to twice this size
+     * @return the store
+     * @throws IllegalArgumentException if maxBytes is not positive or is 1 GiB or more
+     */
+    public static ResultStore open(Path file, long maxBytes) throws IllegalArgumentException {
+        if (maxBytes <= 0 || maxBytes >= 1L << 30) throw new IllegalArgumentException("Store size must be between 1 byte and 1 GiB");
+        return new ResultStore(file, maxBytes);
+    }
+
+    /**
+     * Returns the stored result of an equation and counts the lookup as a hit or a miss.
+     * A result that can't be decoded because the file was damaged is dropped and counted as a miss.
+     *
+     * @param key the normalized equation
+     * @return the stored result, or null if the equation is not in the store
+     */
+    public synchronized vector get(String key) {
+        load();
+        Entry entry = results.get(key);
+        if (entry != null && entry.value == null) {
+            try {
+                entry.value = decodeValue(ByteBuffer.wrap(entry.record).position(entry.valueOffset));
+            } catch (RuntimeException e) {
+                // the record is calculated again, and the new record replaces it when the file is read the next time
+                results.remove(key);
+                bytes -= entry.record.length;
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * Stores the result of an equation and queues it to be written to the file.
+     * The least recently used results are dropped if the store is full.
+     *
+     * @param key the normalized equation
+     * @param value the calculated result
+     */
+    public synchronized void put(String key, vector value) {
+        load();
+        if (closed || error != null) return;
+
+        byte[] equation = key.getBytes(StandardCharsets.UTF_8);
+        Fraction[] components = value.getComponents();
+        int maxSize = 2 * BinaryFormat.MAX_VARLONG_SIZE + equation.length;
+        for (Fraction component : components) {
+            maxSize += BinaryFormat.maxFractionSize(component);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(maxSize);
+        BinaryFormat.putVarLong(buffer, equation.length);
+        buffer.put(equation);
+        int valueOffset = buffer.position();
+        BinaryFormat.putVarLong(buffer, components.length);
+        for (Fraction component : components) {
+            BinaryFormat.putFraction(buffer, component);
+        }
+        byte[] record = new byte[buffer.position()];
+        buffer.flip().get(record);
+
+        keep(key, new Entry(record, valueOffset, value));
+        pending.add(record);
+    }
+
+    /**
+     * Writes the queued results, syncs the file to the disk and stops the writer thread.
+     *
+     * @throws IOException if the file could not be read or written
+     */
+    @Override
+    public void close() throws IOException {
+        Thread running;
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            running = writer;
+        }
+
+        if (running != null) {
+            pending.add(END);
+            try {
+                running.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                if (error == null) error = e;
+            } finally {
+                channel.close();
+            }
+        }
+        if (error != null) throw error;
+    }
+
+    /**
+     * Reads the file the first time the store is used and starts the writer thread.
+     * If the file can't be read, the store stays empty and doesn't write anything.
+     */
+    private void load() {
+        if (loaded) return;
+        loaded = true;
+
+        try {
+            long validLength = 0;
+            if (Files.exists(file) && Files.size(file) > 0) {
+                validLength = readFile();
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            // drop a record cut off when the program stopped while writing, so the new records can be read
+            channel.truncate(validLength);
+            channel.position(validLength);
+            if (validLength == 0) {
+                writeFully(new ByteBuffer[] {header()});
+            }
+            fileSize = channel.position();
+        } catch (IOException e) {
+            error = e;
+            results.clear();
+            bytes = 0;
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException closeError) {
+                    e.addSuppressed(closeError);
+                }
+            }
+            return;
+        }
+
+        writer = new Thread(this::writeRecords, "result-store-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Reads every record of the file into the store. Only the equations are decoded, the results are decoded when they are used.
+     *
+     * @return the length of the file up to the end of the last complete record
+     * @throws IOException if the file can't be read or is not a result store
+     */
+    private long readFile() throws IOException {
+        try (FileChannel input = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (input.size() > Integer.MAX_VALUE) throw new IOException(file + " is too large for a result store");
+            MappedByteBuffer content = input.map(FileChannel.MapMode.READ_ONLY, 0, input.size());
+            for (byte expected : MAGIC) {
+                if (!content.hasRemaining() || content.get() != expected) throw new IOException(file + " is not a result store");
+            }
+            if (!content.hasRemaining() || content.get() != VERSION) throw new IOException(file + " has an unsupported result store version");
+
+            int validLength = content.position();
+            try {
+                while (content.hasRemaining()) {
+                    int recordStart = content.position();
+                    int equationLength = BinaryFormat.checkLength(content, BinaryFormat.getVarLong(content));
+                    byte[] equation = new byte[equationLength];
+                    content.get(equation);
+                    int valueOffset = content.position() - recordStart;
+                    long dimension = BinaryFormat.getVarLong(content);
+                    for (long i = 0; i < dimension; i++) {
+                        BinaryFormat.skipFraction(content);
+                    }
+
+                    byte[] record = new byte[content.position() - recordStart];
+                    content.get(recordStart, record);
+                    keep(new String(equation, StandardCharsets.UTF_8), new Entry(record, valueOffset, null));
+                    validLength = content.position();
+                }
+            } catch (BufferUnderflowException e) {
+                // the last record was cut off, it is dropped when the file is opened for writing
+            }
+            return validLength;
+        }
+    }
+
+    /**
+     * Adds a result to the store, replacing an earlier result of the equation and dropping the least recently used results while the store is full.
+     *
+     * @param key the normalized equation
+     * @param entry the stored result
+     */
+    private void keep(String key, Entry entry) {
+        Entry replaced = results.put(key, entry);
+        bytes += entry.record.length;
+        if (replaced != null) bytes -= replaced.record.length;
+
+        Iterator<Entry> eldest = results.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            Entry dropped = eldest.next();
+            eldest.remove();
+            bytes -= dropped.record.length;
+            evictions++;
+        }
+    }
+
+    /**
+     * Decodes the result of a record.
+     *
+     * @param in the record, positioned at the dimension
+     * @return the result
+     * @throws RuntimeException if the record is damaged, like a BufferUnderflowException or an IllegalArgumentException
+     */
+    private static vector decodeValue(ByteBuffer in) {
+        Fraction[] components = new Fraction[BinaryFormat.checkLength(in, BinaryFormat.getVarLong(in))];
+        for (int i = 0; i < components.length; i++) {
+            components[i] = BinaryFormat.getFraction(in);
+        }
+        return new vector(components);
+    }
+
+    /**
+     * Runs on the writer thread: appends the queued records to the file in batches until the store is closed,
+     * and rewrites the file once it has grown to twice the maximum size.
+     */
+    private void writeRecords() {
+        List<byte[]> batch = new ArrayList<>(WRITE_BATCH_SIZE);
+        try {
+            while (true) {
+                batch.add(pending.take());
+                pending.drainTo(batch, WRITE_BATCH_SIZE - 1);
+                boolean end = batch.get(batch.size() - 1) == END;
+                if (end) batch.remove(batch.size() - 1);
+
+                ByteBuffer[] buffers = new ByteBuffer[batch.size()];
+                for (int i = 0; i < buffers.length; i++) {
+                    buffers[i] = ByteBuffer.wrap(batch.get(i));
+                }
+                fileSize += writeFully(buffers);
+                batch.clear();
+
+                if (fileSize > 2 * maxBytes) compact();
+                if (end) return;
+            }
+        } catch (IOException e) {
+            error = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Rewrites the file with only the kept results, oldest first, so the next run keeps the same recently used results.
+     * The new file is written next to the old one and then moved over it.
+     *
+     * @throws IOException if the file can't be written
+     */
+    private void compact() throws IOException {
+        List<ByteBuffer> records = new ArrayList<>();
+        records.add(header());
+        synchronized (this) {
+            for (Entry entry : results.values()) {
+                records.add(ByteBuffer.wrap(entry.record));
+            }
+        }
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel output = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] buffers = records.toArray(new ByteBuffer[0]);
+            for (int start = 0; start < buffers.length; start += WRITE_BATCH_SIZE) {
+                int length = Math.min(WRITE_BATCH_SIZE, buffers.length - start);
+                while (hasRemaining(buffers, start, length)) {
+                    output.write(buffers, start, length);
+                }
+            }
+            output.force(false);
+        }
+
+        channel.close();
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(file, StandardOpenOption.WRITE);
+        fileSize = channel.size();
+        channel.position(fileSize);
+    }
+
+    /**
+     * Writes all the buffers to the end of the file.
+     *
+     * @param buffers the buffers to write
+     * @return the number of bytes written
+     * @throws IOException if the file can't be written
+     */
+    private long writeFully(ByteBuffer[] buffers) throws IOException {
+        long written = 0;
+        while (hasRemaining(buffers, 0, buffers.length)) {
+            written += channel.write(buffers);
+        }
+        return written;
+    }
+
+    /**
+     * @param buffers the buffers
+     * @param start the index of the first buffer to check
+     * @param length the number of buffers to check
+     * @return boolean - true if any of the buffers has bytes left, false otherwise
+     */
+    private static boolean hasRemaining(ByteBuffer[] buffers, int start, int length) {
+        for (int i = start; i < start + length; i++) {
+            if (buffers[i].hasRemaining()) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the header of a store file
+     */
+    private static ByteBuffer header() {
+        return ByteBuffer.allocate(MAGIC.length + 1).put(MAGIC).put(VERSION).flip();
+    }
+
+    /**
+     * Returns the number of results currently in the store.
+     *
+     * @return the number of stored results
+     */
+    public synchronized int size() {
+        return results.size();
+    }
+
+    /**
+     * Returns the number of lookups that found a stored result.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that did not find a stored result.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of results dropped to keep the store under its maximum size.
+     *
+     * @return the number of evictions
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the error that stopped the store from reading or writing its file.
+     *
+     * @return the error, or null if the file was read and written without errors
+     */
+    public IOException getError() {
+        return error;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ResultStore[%s, size=%d, bytes=%d/%d, hits=%d, misses=%d, evictions=%d]", file, results.size(), bytes, maxBytes, hits, misses, evictions);
+    }
+}
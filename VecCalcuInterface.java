@@ -12,7 +12,7 @@ public class VecCalcuInterface {
         System.out.println("\n\n\n\n=======Vector Calculator=======");
         System.out.println("\n\nInstructions:");
         System.out.println("\nTo make a Vector use square bracket like:");
-        System.out.println("For 3D Vector: [5, 3, 1], 2D: [3, 4], 1D: [2]");
+        System.out.println("For 3D Vector: [5, 3, 1], 2D: [3, 4], 1D: [2], and so on: [1, 2, 3, 4]");
         System.out.println("\nTo do scalar multiplication put a number before the Vector: 5[6, 4]");
         System.out.println("Brackets can also be used for scalar multiplication: 5([6, 4] + [4, 4])");
         System.out.println("\nFor operations put the symbol between the Vectors: 5[6, 4] + 5[4, 4] - 6[5, 4]");
@@ -0,0 +1,313 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/** 
+* Stores many vectors of the same dimension as columns of numerators and denominators, one pair of arrays per component.
+* Every fraction is kept reduced with a positive denominator in long arithmetic, so an operation throws an
+* ArithmeticException instead of overflowing if a result does not fit in a long.
+*/
+public class VectorBatch {
+    private final int dimension;
+    private final int size;
+    private final long[][] numerators;
+    private final long[][] denominators;
+
+    /**
+     * Creates a batch of zero vectors.
+     *
+     * @param dimension the dimension of every vector in the batch
+     * @param size the number of vectors in the batch
+     * @throws IllegalArgumentException if the dimension or size is not valid
+     */
+    public VectorBatch(int dimension, int size) throws IllegalArgumentException {
+        if (dimension < 1) throw new IllegalArgumentException("Vector needs at least 1 component");
+        if (size < 0) throw new IllegalArgumentException("Size can't be negative");
+        this.dimension = dimension;
+        this.size = size;
+        this.numerators = new long[dimension][size];
+        this.denominators = new long[dimension][size];
+        for (long[] column : denominators) {
+            Arrays.fill(column, 1);
+        }
+    }
+
+    /**
+     * Creates a batch from a list of vectors.
+     *
+     * @param vectors the vectors to store, all of the same dimension
+     * @return a batch holding the vectors in the same order
+     * @throws IllegalAccessException if the vectors are not the same dimension
+     * @throws IllegalArgumentException if the list is empty
+     * @throws ArithmeticException if a component does not fit in a long
+     */
+    public static VectorBatch fromVectors(List<vector> vectors) throws IllegalAccessException, IllegalArgumentException {
+        if (vectors.isEmpty()) throw new IllegalArgumentException("Can't find the dimension of an empty list");
+        VectorBatch batch = new VectorBatch(vectors.get(0).getDimension(), vectors.size());
+        for (int i = 0; i < vectors.size(); i++) {
+            batch.set(i, vectors.get(i));
+        }
+        return batch;
+    }
+
+    /**
+     * Returns the dimension of the vectors in the batch.
+     *
+     * @return the dimension as an integer
+     */
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Returns the number of vectors in the batch.
+     *
+     * @return the number of vectors
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Replaces the vector at the given index.
+     *
+     * @param index the index of the vector to replace
+     * @param value the new vector
+     * @throws IllegalAccessException if the vector is not the same dimension as the batch
+     * @throws ArithmeticException if a component does not fit in a long
+     */
+    public void set(int index, vector value) throws IllegalAccessException {
+        if (value.getDimension() != dimension) throw new IllegalAccessException("Vectors are not the Same Dimensions");
+        for (int component = 0; component < dimension; component++) {
+            Fraction fraction = value.getComponent(component);
+            numerators[component][index] = fraction.getNumerator();
+            denominators[component][index] = fraction.getDenominator();
+        }
+    }
+
+    /**
+     * Returns the vector at the given index.
+     *
+     * @param index the index of the vector
+     * @return a new vector object with the components at the index
+     */
+    public vector get(int index) {
+        Fraction[] components = new Fraction[dimension];
+        for (int component = 0; component < dimension; component++) {
+            components[component] = Fraction.of(numerators[component][index], denominators[component][index]);
+        }
+        return new vector(components);
+    }
+
+    /**
+     * Converts the batch back to a list of vectors.
+     *
+     * @return the vectors of the batch in order
+     */
+    public List<vector> toVectors() {
+        List<vector> vectors = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            vectors.add(get(i));
+        }
+        return vectors;
+    }
+
+    /**
+     * Adds each vector of this batch to the vector at the same index of the other batch.
+     *
+     * @param other the batch to add to this batch
+     * @return a new batch with the sums
+     * @throws IllegalAccessException if the batches are not the same dimension
+     * @throws IllegalArgumentException if the batches are not the same size
+     */
+    public VectorBatch add(VectorBatch other) throws IllegalAccessException, IllegalArgumentException {
+        checkSame(other);
+        VectorBatch result = new VectorBatch(dimension, size);
+        long[] fraction = new long[2];
+        for (int component = 0; component < dimension; component++) {
+            long[] num = numerators[component], den = denominators[component];
+            long[] otherNum = other.numerators[component], otherDen = other.denominators[component];
+            long[] resultNum = result.numerators[component], resultDen = result.denominators[component];
+            for (int i = 0; i < size; i++) {
+                add(num[i], den[i], otherNum[i], otherDen[i], fraction);
+                resultNum[i] = fraction[0];
+                resultDen[i] = fraction[1];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Subtracts the vector at the same index of the other batch from each vector of this batch.
+     *
+     * @param other the batch to subtract from this batch
+     * @return a new batch with the differences
+     * @throws IllegalAccessException if the batches are not the same dimension
+     * @throws IllegalArgumentException if the batches are not the same size
+     */
+    public VectorBatch subtract(VectorBatch other) throws IllegalAccessException, IllegalArgumentException {
+        checkSame(other);
+        VectorBatch result = new VectorBatch(dimension, size);
+        long[] fraction = new long[2];
+        for (int component = 0; component < dimension; component++) {
+            long[] num = numerators[component], den = denominators[component];
+            long[] otherNum = other.numerators[component], otherDen = other.denominators[component];
+            long[] resultNum = result.numerators[component], resultDen = result.denominators[component];
+            for (int i = 0; i < size; i++) {
+                add(num[i], den[i], Math.negateExact(otherNum[i]), otherDen[i], fraction);
+                resultNum[i] = fraction[0];
+                resultDen[i] = fraction[1];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Multiplies every vector of this batch by the same scalar.
+     *
+     * @param multiple the scalar to multiply by
+     * @return a new batch with the scaled vectors
+     * @throws ArithmeticException if the scalar does not fit in a long
+     */
+    public VectorBatch scalarMultiply(Fraction multiple) {
+        long scalarNum = multiple.getNumerator();
+        long scalarDen = multiple.getDenominator();
+        VectorBatch result = new VectorBatch(dimension, size);
+        long[] fraction = new long[2];
+        for (int component = 0; component < dimension; component++) {
+            long[] num = numerators[component], den = denominators[component];
+            long[] resultNum = result.numerators[component], resultDen = result.denominators[component];
+            for (int i = 0; i < size; i++) {
+                multiply(num[i], den[i], scalarNum, scalarDen, fraction);
+                resultNum[i] = fraction[0];
+                resultDen[i] = fraction[1];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Calculates the dot product of each vector of this batch and the vector at the same index of the other batch.
+     *
+     * @param other the batch to calculate the dot products with
+     * @return a new batch of 1D vectors holding the dot products
+     * @throws IllegalAccessException if the batches are not the same dimension
+     * @throws IllegalArgumentException if the batches are not the same size
+     */
+    public VectorBatch dotProduct(VectorBatch other) throws IllegalAccessException, IllegalArgumentException {
+        checkSame(other);
+        VectorBatch result = new VectorBatch(1, size);
+        long[] resultNum = result.numerators[0], resultDen = result.denominators[0];
+        long[] fraction = new long[2];
+        for (int component = 0; component < dimension; component++) {
+            long[] num = numerators[component], den = denominators[component];
+            long[] otherNum = other.numerators[component], otherDen = other.denominators[component];
+            for (int i = 0; i < size; i++) {
+                multiply(num[i], den[i], otherNum[i], otherDen[i], fraction);
+                add(resultNum[i], resultDen[i], fraction[0], fraction[1], fraction);
+                resultNum[i] = fraction[0];
+                resultDen[i] = fraction[1];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Calculates the cross product of each vector of this batch and the vector at the same index of the other batch.
+     * Like vector.crossProduct, the cross product of 1D vectors is their dot product.
+     *
+     * @param other the batch to calculate the cross products with
+     * @return a new batch with the cross products
+     * @throws IllegalAccessException if the batches are not 3D or 1D, or are not the same dimension
+     * @throws IllegalArgumentException if the batches are not the same size
+     */
+    public VectorBatch crossProduct(VectorBatch other) throws IllegalAccessException, IllegalArgumentException {
+        checkSame(other);
+        if (dimension == 1) return dotProduct(other);
+        if (dimension != 3) throw new IllegalAccessException("One or more Vector not 3 Dimensional");
+
+        VectorBatch result = new VectorBatch(3, size);
+        long[] fraction = new long[2];
+        for (int component = 0; component < 3; component++) {
+            // component x uses y and z, y uses z and x, z uses x and y
+            int first = (component + 1) % 3;
+            int second = (component + 2) % 3;
+            long[] firstNum = numerators[first], firstDen = denominators[first];
+            long[] secondNum = numerators[second], secondDen = denominators[second];
+            long[] otherFirstNum = other.numerators[first], otherFirstDen = other.denominators[first];
+            long[] otherSecondNum = other.numerators[second], otherSecondDen = other.denominators[second];
+            long[] resultNum = result.numerators[component], resultDen = result.denominators[component];
+
+            for (int i = 0; i < size; i++) {
+                multiply(firstNum[i], firstDen[i], otherSecondNum[i], otherSecondDen[i], fraction);
+                long termNum = fraction[0];
+                long termDen = fraction[1];
+                multiply(secondNum[i], secondDen[i], otherFirstNum[i], otherFirstDen[i], fraction);
+                add(termNum, termDen, Math.negateExact(fraction[0]), fraction[1], fraction);
+                resultNum[i] = fraction[0];
+                resultDen[i] = fraction[1];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks if the other batch can be combined with this batch.
+     *
+     * @param other the other batch
+     * @throws IllegalAccessException if the batches are not the same dimension
+     * @throws IllegalArgumentException if the batches are not the same size
+     */
+    private void checkSame(VectorBatch other) throws IllegalAccessException, IllegalArgumentException {
+        if (dimension != other.dimension) throw new IllegalAccessException("Vectors are not the Same Dimensions");
+        if (size != other.size) throw new IllegalArgumentException("Batches are not the same size");
+    }
+
+    /**
+     * Adds two reduced fractions and writes the reduced sum to result.
+     *
+     * @param num the numerator of the first fraction
+     * @param den the positive denominator of the first fraction
+     * @param otherNum the numerator of the second fraction
+     * @param otherDen the positive denominator of the second fraction
+     * @param result a two element array receiving the numerator and denominator of the sum
+     * @throws ArithmeticException if the sum does not fit in a long
+     */
+    private static void add(long num, long den, long otherNum, long otherDen, long[] result) {
+        long denGCD = Fraction.gcd(den, otherDen);
+        long otherScale = otherDen / denGCD;
+        long newNum = Math.addExact(Math.multiplyExact(num, otherScale), Math.multiplyExact(otherNum, den / denGCD));
+        long newDen = Math.multiplyExact(den, otherScale);
+        reduce(newNum, newDen, result);
+    }
+
+    /**
+     * Multiplies two reduced fractions and writes the reduced product to result, cancelling across the terms first.
+     *
+     * @param num the numerator of the first fraction
+     * @param den the positive denominator of the first fraction
+     * @param otherNum the numerator of the second fraction
+     * @param otherDen the positive denominator of the second fraction
+     * @param result a two element array receiving the numerator and denominator of the product
+     * @throws ArithmeticException if the product does not fit in a long
+     */
+    private static void multiply(long num, long den, long otherNum, long otherDen, long[] result) {
+        long firstGCD = Fraction.gcd(num, otherDen);
+        long secondGCD = Fraction.gcd(otherNum, den);
+        result[0] = Math.multiplyExact(num / firstGCD, otherNum / secondGCD);
+        result[1] = Math.multiplyExact(den / secondGCD, otherDen / firstGCD);
+    }
+
+    /**
+     * Reduces a fraction with a positive denominator and writes it to result.
+     *
+     * @param num the numerator
+     * @param den the positive denominator
+     * @param result a two element array receiving the reduced numerator and denominator
+     */
+    private static void reduce(long num, long den, long[] result) {
+        long divider = Fraction.gcd(num, den);
+        result[0] = num / divider;
+        result[1] = den / divider;
+    }
+}
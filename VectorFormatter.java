@@ -0,0 +1,111 @@
+import java.io.IOException;
+
+/**
+* Writes vectors and scalars in a chosen style: mixed numbers [1 1/2, 2], improper fractions [3/2, 2] or decimals [1.5, 2].
+* A formatter reuses its own buffer, so it should only be used by one thread at a time.
+*/
+class VectorFormatter {
+    private static final int DEFAULT_DECIMAL_PLACES = 6;
+
+    private final Fraction.formatStyle style;
+    private final int decimalPlaces;
+    private final StringBuilder buffer = new StringBuilder(64);
+
+    /**
+     * Creates a formatter with 6 decimal places for the decimal style.
+     *
+     * @param style mixed, improper or decimal
+     */
+    public VectorFormatter(Fraction.formatStyle style) {
+        this(style, DEFAULT_DECIMAL_PLACES);
+    }
+
+    /**
+     * @param style mixed, improper or decimal
+     * @param decimalPlaces the largest number of digits after the decimal point, only used by the decimal style
+     * @throws IllegalArgumentException if decimalPlaces is not between 0 and 18
+     */
+    public VectorFormatter(Fraction.formatStyle style, int decimalPlaces) {
+        if (decimalPlaces < 0 || decimalPlaces > Fraction.MAX_DECIMAL_PLACES) {
+            throw new IllegalArgumentException("Decimal places must be between 0 and " + Fraction.MAX_DECIMAL_PLACES);
+        }
+        this.style = style;
+        this.decimalPlaces = decimalPlaces;
+    }
+
+    /**
+     * Writes a vector like [x, y, z] to the end of a StringBuilder.
+     *
+     * @param value the vector to write
+     * @param out the StringBuilder to append to
+     * @return the same StringBuilder
+     */
+    public StringBuilder formatTo(vector value, StringBuilder out) {
+        out.append('[');
+        for (int i = 0; i < value.getDimension(); i++) {
+            if (i > 0) out.append(", ");
+            formatTo(component(value, i), out);
+        }
+        return out.append(']');
+    }
+
+    /**
+     * Writes a single fraction to the end of a StringBuilder.
+     *
+     * @param value the fraction to write
+     * @param out the StringBuilder to append to
+     * @return the same StringBuilder
+     */
+    public StringBuilder formatTo(Fraction value, StringBuilder out) {
+        return value.formatTo(out, style, decimalPlaces);
+    }
+
+    /**
+     * Writes a calculated result to any Appendable, like a Writer. A 1D result is written as a scalar,
+     * like VectorCalculator.format. The result is built in the formatter's buffer and appended at once.
+     *
+     * @param result the calculated vector
+     * @param out the Appendable to write to
+     * @throws IOException if the Appendable can't be written
+     */
+    public void formatResultTo(vector result, Appendable out) throws IOException {
+        buffer.setLength(0);
+        out.append(formatResultTo(result, buffer));
+    }
+
+    /**
+     * Writes a calculated result to the end of a StringBuilder. A 1D result is written as a scalar.
+     *
+     * @param result the calculated vector
+     * @param out the StringBuilder to append to
+     * @return the same StringBuilder
+     */
+    public StringBuilder formatResultTo(vector result, StringBuilder out) {
+        if (result.getDimension() == 1) return formatTo(result.getX(), out);
+        return formatTo(result, out);
+    }
+
+    /**
+     * Converts a calculated result to a string. A 1D result is written as a scalar.
+     *
+     * @param result the calculated vector
+     * @return the result as a string
+     */
+    public String format(vector result) {
+        buffer.setLength(0);
+        return formatResultTo(result, buffer).toString();
+    }
+
+    /**
+     * @param value the vector
+     * @param index the index of the component, always less than the dimension
+     * @return the component at the index
+     */
+    private static Fraction component(vector value, int index) {
+        try {
+            return value.getComponent(index);
+        } catch (IllegalAccessException e) {
+            throw new IndexOutOfBoundsException(index);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package vectorcalculator;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* Benchmarks calculating the equations of VectorCalculator.test() and long generated chains of operations.
+* calculate goes through the result cache, so it measures a cache hit. uncached parses and calculates every time.
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculatorBenchmark {
+
+    /**
+    * Equations taken from VectorCalculator.test()
+    */
+    @State(Scope.Thread)
+    public static class TestEquations {
+        @Param({
+            "[4, 7, -7] + [4, 0, 9]",
+            "1/6[4, 83, 12] - 12/3[4, -6, 4] + 1/3[3, -5, 6]",
+            "1 1/5[3/4, 1 3/8, -19] - 1 1/9[1, -2, 5] + 8/6[9, -4/8, -5/7] + 5/6[6, 7, 8] - [3, 5, 6]",
+            "2/3[3/3, 7/6, 8] * 5/6[1, 2/8, 3]",
+            "-2/3[3, 7, 8] x 5/6[5, 2, 67]",
+            "(5/2[5, 3, 9] + 5/7([6, 12, 9] -5 5/7[12/2, 5, 8])) x [2, 3, 4]",
+            "(5 4/3[5, 2, 9] * 5/7[6, 12, 9]) x (5/2[5, 6, 9] * 5/7[6, 12, 9])",
+            "[       22     9    /      10     , -2  1  /   25, -98   1  /  5  ] +  5/2[5, 6, 9]",
+            "(5 4/3[5, 2, 9] x 5/7[6, 12, 9]) - 5/3(5/2[5, 6, 9] x 5/7[6, 12, 9])"
+        })
+        public String equation;
+    }
+
+    /**
+    * Generated chains of scaled 3D vectors joined by +, - and x
+    */
+    @State(Scope.Thread)
+    public static class Chain {
+        @Param({"10", "100", "1000"})
+        public int length;
+
+        public String equation;
+
+        /**
+         * Generates the chain with a fixed seed, so every run calculates the same equation.
+         */
+        @Setup
+        public void setup() {
+            Random random = new Random(42);
+            String[] operators = {" + ", " - ", " x "};
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < length; i++) {
+                if (i > 0) builder.append(operators[random.nextInt(operators.length)]);
+                builder.append(random.nextInt(9) + 1).append('/').append(random.nextInt(9) + 1).append('[');
+                for (int component = 0; component < 3; component++) {
+                    if (component > 0) builder.append(", ");
+                    builder.append(random.nextInt(41) - 20);
+                }
+                builder.append(']');
+            }
+            equation = builder.toString();
+        }
+    }
+
+    /**
+     * @param equations the equation to calculate
+     * @return the calculated result, taken from the cache after the first call
+     * @throws IllegalAccessException if the equation has an incorrect format
+     */
+    @Benchmark
+    public Object calculate(TestEquations equations) throws IllegalAccessException {
+        return VectorCalculator.calculate(equations.equation);
+    }
+
+    /**
+     * @param equations the equation to calculate
+     * @return the calculated result, without the cache
+     * @throws IllegalAccessException if the equation has an incorrect format
+     */
+    @Benchmark
+    public Object uncached(TestEquations equations) throws IllegalAccessException {
+        return VectorCalculator.format(ExpressionParser.parse(equations.equation).evaluate());
+    }
+
+    /**
+     * @param chain the chain to calculate
+     * @return the calculated result, without the cache
+     * @throws IllegalAccessException if the chain has an incorrect format
+     */
+    @Benchmark
+    public Object chain(Chain chain) throws IllegalAccessException {
+        return VectorCalculator.format(ExpressionParser.parse(chain.equation).evaluate());
+    }
+}
@@ -0,0 +1,102 @@
+package vectorcalculator;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* Benchmarks creating, adding and multiplying fractions of different sizes
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FractionBenchmark {
+
+    /**
+     * small: interned values, medium: longs whose products still fit in a long,
+     * large: longs whose products overflow, big: values that only fit in a BigInteger
+     */
+    @Param({"small", "medium", "large", "big"})
+    public String operands;
+
+    private long numerator;
+    private long denominator;
+    private BigInteger bigNumerator;
+    private BigInteger bigDenominator;
+    private Fraction first;
+    private Fraction second;
+
+    /**
+     * Creates the two operands of the chosen size.
+     */
+    @Setup
+    public void setup() {
+        switch (operands) {
+            case "small":
+                first = Fraction.of(3, 4);
+                second = Fraction.of(5, 6);
+                break;
+            case "medium":
+                first = Fraction.of(123456789, 987654321);
+                second = Fraction.of(987654319, 123456791);
+                break;
+            case "large":
+                first = Fraction.of(4000000007L, 3000000019L);
+                second = Fraction.of(5000000029L, 2000000011L);
+                break;
+            default:
+                first = Fraction.of(new BigInteger("1234567890123456789012345678901"), new BigInteger("98765432109876543210987654321"));
+                second = Fraction.of(new BigInteger("-31415926535897932384626433832795"), new BigInteger("2718281828459045235360287471"));
+                break;
+        }
+        bigNumerator = first.getBigNumerator();
+        bigDenominator = first.getBigDenominator();
+        if (bigNumerator.bitLength() < Long.SIZE && bigDenominator.bitLength() < Long.SIZE) {
+            numerator = first.getNumerator();
+            denominator = first.getDenominator();
+        }
+    }
+
+    /**
+     * Creates a fraction from a numerator and denominator, reducing it.
+     *
+     * @return the created fraction
+     */
+    @Benchmark
+    public Object construct() {
+        if (denominator == 0) {
+            return Fraction.of(bigNumerator, bigDenominator);
+        }
+        return Fraction.of(numerator, denominator);
+    }
+
+    /**
+     * @return the sum of the two operands
+     */
+    @Benchmark
+    public Object add() {
+        return first.add(second);
+    }
+
+    /**
+     * @return the product of the two operands
+     */
+    @Benchmark
+    public Object multiply() {
+        return first.multiply(second);
+    }
+}
@@ -0,0 +1,48 @@
+package vectorcalculator;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* Benchmarks generating random quiz questions
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuizBenchmark {
+
+    @Param({"crossProduct", "dotProduct", "add", "subtract", "angle", "complex"})
+    public String type;
+
+    private Quiz.questionType questionType;
+
+    /**
+     * Converts the chosen type name to the question type.
+     */
+    @Setup
+    public void setup() {
+        questionType = Quiz.questionType.valueOf(type);
+    }
+
+    /**
+     * @return the generated question
+     */
+    @Benchmark
+    public Object generate() {
+        return Quiz.selectQuestion(questionType);
+    }
+}
@@ -0,0 +1,71 @@
+package vectorcalculator;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* Benchmarks parsing vectors and calculating their dot and cross products
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VectorBenchmark {
+
+    @Param({"[4, 7, -7]", "[3/4, 1 3/8, -19]", "[22 9/10, -2 1/25, -98 1/5]"})
+    public String text;
+
+    private vector first;
+    private vector second;
+
+    /**
+     * Parses the chosen vector and creates a second vector to calculate with.
+     *
+     * @throws IllegalAccessException if the chosen vector has an incorrect format
+     */
+    @Setup
+    public void setup() throws IllegalAccessException {
+        first = vector.valueOf(text);
+        second = vector.valueOf("[5 1/4, 6, 5 1/2]");
+    }
+
+    /**
+     * @return the parsed vector
+     * @throws IllegalAccessException if the vector has an incorrect format
+     */
+    @Benchmark
+    public Object valueOf() throws IllegalAccessException {
+        return vector.valueOf(text);
+    }
+
+    /**
+     * @return the dot product of the two vectors
+     * @throws IllegalAccessException if the vectors are not the same dimension
+     */
+    @Benchmark
+    public Object dotProduct() throws IllegalAccessException {
+        return first.dotProduct(second);
+    }
+
+    /**
+     * @return the cross product of the two vectors
+     * @throws IllegalAccessException if the vectors are not 3D
+     */
+    @Benchmark
+    public Object crossProduct() throws IllegalAccessException {
+        return first.crossProduct(second);
+    }
+}
@@ -1,12 +1,13 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /** 
 * Representes a vector with 1 or more fractions
 */
 public class vector {
-    private Fraction x;
-    private Fraction y;
-    private Fraction z;
-    private int dimension;
+    private final Fraction[] components;
+    // the dot product of the vector with itself, calculated the first time it is needed
+    private Fraction squaredNorm;
 
     /**
      * Creates a 1-dimensional vector with the given x-coordinate.
@@ -14,10 +15,7 @@ public class vector {
      * @param x the x-coordinate of the vector - a Fraction.
      */
     public vector(Fraction x) {
-        this.x = x;
-        this.y = new Fraction(0);;
-        this.z = new Fraction(0);
-        dimension = 1;
+        this.components = new Fraction[] {x};
     }
 
     /**
@@ -27,10 +25,7 @@ public class vector {
      * @param y the y-coordinate of the vector - a Fraction.
      */
     public vector(Fraction x, Fraction y) {
-        this.x = x;
-        this.y = y;
-        this.z = new Fraction(0);
-        dimension = 2;
+        this.components = new Fraction[] {x, y};
     }
 
     /**
@@ -41,10 +36,29 @@ public class vector {
      * @param z the z-coordinate of the vector - a Fraction.
      */
     public vector(Fraction x, Fraction y, Fraction z) {
-        this.x = x;
-        this.y = y;
-        this.z = z;
-        dimension = 3;
+        this.components = new Fraction[] {x, y, z};
+    }
+
+    /**
+     * Creates a vector of any dimension with the given components.
+     *
+     * @param components the components of the vector in order - Fractions. The array is copied.
+     * @throws IllegalArgumentException if there are no components.
+     */
+    public vector(Fraction[] components) throws IllegalArgumentException {
+        this(components.clone(), true);
+    }
+
+    /**
+     * Creates a vector that uses the given array without copying it.
+     *
+     * @param components the components of the vector, not used by anything else.
+     * @param owned always true, only used to tell this constructor apart from the public one.
+     * @throws IllegalArgumentException if there are no components.
+     */
+    private vector(Fraction[] components, boolean owned) throws IllegalArgumentException {
+        if (components.length == 0) throw new IllegalArgumentException("Vector needs at least 1 component");
+        this.components = components;
     }
 
     /**
@@ -56,9 +70,11 @@ public class vector {
      */
     public vector add(vector other) throws IllegalAccessException {
         if (!isDimensionSame(other)) throw new IllegalAccessException("Vectors are not the Same Dimensions");
-        vector newVec = new vector(x.add(other.x), y.add(other.y), z.add(other.z));
-        newVec.dimension = dimension;
-        return newVec;
+        Fraction[] added = new Fraction[components.length];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = components[i].add(other.components[i]);
+        }
+        return new vector(added, true);
     }
 
     /**
@@ -70,9 +86,11 @@ public class vector {
      */
     public vector subtract(vector other) throws IllegalAccessException {
         if (!isDimensionSame(other)) throw new IllegalAccessException("Vectors are not the Same Dimensions");
-        vector newVec = new vector(x.subtract(other.x), y.subtract(other.y), z.subtract(other.z));
-        newVec.dimension = dimension;
-        return newVec;
+        Fraction[] subtracted = new Fraction[components.length];
+        for (int i = 0; i < subtracted.length; i++) {
+            subtracted[i] = components[i].subtract(other.components[i]);
+        }
+        return new vector(subtracted, true);
     }
 
     /**
@@ -82,9 +100,11 @@ public class vector {
      * @return the vector resulting from the multiplication of this vector by the specified scalar value.
      */
     public vector scalarMultiply(Fraction multiple) {
-        vector newVec = new vector(x.multiply(multiple), y.multiply(multiple), z.multiply(multiple));
-        newVec.dimension = dimension;
-        return newVec;
+        Fraction[] multiplied = new Fraction[components.length];
+        for (int i = 0; i < multiplied.length; i++) {
+            multiplied[i] = components[i].multiply(multiple);
+        }
+        return new vector(multiplied, true);
     }
 
     /**
@@ -96,31 +116,62 @@ public class vector {
      */
     public vector dotProduct(vector other) throws IllegalAccessException {
         if (!isDimensionSame(other)) throw new IllegalAccessException("Vectors are not the Same Dimensions");
-        return new vector(x.multiply(other.x).add(y.multiply(other.y)).add(z.multiply(other.z)));
+        Fraction[] a = components;
+        Fraction[] b = other.components;
+
+        if (a.length == 1) return new vector(a[0].multiply(b[0]));
+
+        // summed over a common denominator, so only the final result is reduced
+        FractionAccumulator sum = new FractionAccumulator();
+        for (int i = 0; i < a.length; i++) {
+            sum.addProduct(a[i], b[i]);
+        }
+        return new vector(sum.toFraction());
     }
 
     /**
-     * Calculates the dot product of this vector and another one and returns the result as a new vector.
+     * Calculates the cross product of this vector and another one and returns the result as a new vector.
+     * The cross product is only defined for 3D vectors, for 1D vectors it is the same as the dot product.
      *
-     * @param other the vector to calculate the dot product with.
-     * @return the result of the dot product as a new vector.
-     * @throws IllegalAccessException if the two vectors are not the same dimension.
+     * @param other the vector to calculate the cross product with.
+     * @return the result of the cross product as a new vector.
+     * @throws IllegalAccessException if the two vectors are not both 3D or both 1D.
      */
     public vector crossProduct(vector other) throws IllegalAccessException {
         if (isDimensionSame(other)) {
-            if (dimension == 1) {
+            if (components.length == 1) {
                 return dotProduct(other);
             }
-            else if (dimension == 3) {
-                Fraction xCross = y.multiply(other.z).subtract(z.multiply(other.y));
-                Fraction yCross = z.multiply(other.x).subtract(x.multiply(other.z));
-                Fraction zCross = x.multiply(other.y).subtract(y.multiply(other.x));
+            else if (components.length == 3) {
+                Fraction x = components[0], y = components[1], z = components[2];
+                Fraction otherX = other.components[0], otherY = other.components[1], otherZ = other.components[2];
+                FractionAccumulator sum = new FractionAccumulator();
+                Fraction xCross = productDifference(sum, y, otherZ, z, otherY);
+                Fraction yCross = productDifference(sum, z, otherX, x, otherZ);
+                Fraction zCross = productDifference(sum, x, otherY, y, otherX);
                 return new vector(xCross, yCross, zCross);
             }
         }
         throw new IllegalAccessException("One or more Vector not 3 Dimensional");
     }
 
+    /**
+     * Calculates a * b - c * d over a common denominator with a single reduction at the end.
+     *
+     * @param sum the accumulator to calculate with, it is cleared first
+     * @param a the first factor of the first product
+     * @param b the second factor of the first product
+     * @param c the first factor of the subtracted product
+     * @param d the second factor of the subtracted product
+     * @return the reduced difference of the products
+     */
+    private static Fraction productDifference(FractionAccumulator sum, Fraction a, Fraction b, Fraction c, Fraction d) {
+        sum.clear();
+        sum.addProduct(a, b);
+        sum.subtractProduct(c, d);
+        return sum.toFraction();
+    }
+
     /**
      * Checks if this vector is equal to another one.
      *
@@ -130,7 +181,10 @@ public class vector {
      */
     public boolean equals(vector other) throws IllegalAccessException {
         if (isDimensionSame(other)) {
-            return x.equals(other.x) && y.equals(other.y) && z.equals(other.z);
+            for (int i = 0; i < components.length; i++) {
+                if (!components[i].equals(other.components[i])) return false;
+            }
+            return true;
         }
         throw new IllegalAccessException("Vectors are not the Same Dimensions");
     }
@@ -139,17 +193,27 @@ public class vector {
      * Converts vector to a String.
      * 1D: [x], 
      * 2D: [x, y], 
-     * 3D: [x, y, z]
+     * 3D: [x, y, z], and so on for more dimensions
      * @return a string that represents the vector object.
      */
     public String toString() {
-        if (dimension == 1){
-            return String.format("[%s]", x.toString());
-        }
-        else if (dimension == 2){
-            return String.format("[%s, %s]", x.toString(), y.toString());
+        return formatTo(new StringBuilder()).toString();
+    }
+
+    /**
+     * Writes the vector like toString, [x, y, z], to the end of a StringBuilder.
+     * The components are appended directly without creating a string for each of them.
+     *
+     * @param out the StringBuilder to append to
+     * @return the same StringBuilder
+     */
+    public StringBuilder formatTo(StringBuilder out) {
+        out.append('[');
+        for (int i = 0; i < components.length; i++) {
+            if (i > 0) out.append(", ");
+            components[i].formatTo(out);
         }
-        return String.format("[%s, %s, %s]", x.toString(), y.toString(), z.toString());
+        return out.append(']');
     }
 
     /**
@@ -158,7 +222,7 @@ public class vector {
      * @return the x-component of this vector - a Fraction.
      */
     public Fraction getX() {
-        return x;
+        return components[0];
     }
 
     /**
@@ -168,10 +232,7 @@ public class vector {
      * @throws IllegalAccessException if the vector has no y-component.
      */
     public Fraction getY() throws IllegalAccessException {
-        if (dimension >= 2) {
-            return y;
-        }
-        throw new IllegalAccessException("Vector has no Y component as it is " + dimension + "D");
+        return getComponent(1);
     }
 
     /**
@@ -181,10 +242,30 @@ public class vector {
      * @throws IllegalAccessException if the vector has no z-component.
      */
     public Fraction getZ() throws IllegalAccessException {
-        if (dimension == 3) {
-            return z;
+        return getComponent(2);
+    }
+
+    /**
+     * Returns a component of this vector - a Fraction.
+     *
+     * @param index the index of the component, 0 for x, 1 for y, 2 for z and so on.
+     * @return the component of this vector at the index - a Fraction.
+     * @throws IllegalAccessException if the vector has no component at the index.
+     */
+    public Fraction getComponent(int index) throws IllegalAccessException {
+        if (index >= 0 && index < components.length) {
+            return components[index];
         }
-        throw new IllegalAccessException("Vector has no Z component as it is " + dimension + "D");
+        throw new IllegalAccessException("Vector has no component " + (index + 1) + " as it is " + components.length + "D");
+    }
+
+    /**
+     * Returns all components of this vector.
+     *
+     * @return a copy of the components of this vector in order - Fractions.
+     */
+    public Fraction[] getComponents() {
+        return components.clone();
     }
 
     /** 
@@ -193,7 +274,7 @@ public class vector {
      * @return the dimension of the vector object as an integer.
      */
     public int getDimension() {
-        return dimension;
+        return components.length;
     }
 
     /**
@@ -203,17 +284,36 @@ public class vector {
      * @return boolean - True if the dimension of this vector is the same as the other vector's dimension, false otherwise.
      */
     public boolean isDimensionSame(vector second) {
-        return dimension == second.dimension;
+        return components.length == second.components.length;
+    }
+
+    /**
+     * Calculates the squared magnitude of this vector exactly, the sum of the squares of its components.
+     * The result is kept, so repeated calls on the same vector don't calculate it again.
+     *
+     * @return the squared magnitude of the vector - a Fraction.
+     */
+    public Fraction squaredNorm() {
+        Fraction norm = squaredNorm;
+        if (norm == null) {
+            FractionAccumulator sum = new FractionAccumulator();
+            for (Fraction component : components) {
+                sum.addProduct(component, component);
+            }
+            norm = sum.toFraction();
+            squaredNorm = norm;
+        }
+        return norm;
     }
 
     /**
-     * Calculates the magnitude of a 3-dimensional vector.
+     * Calculates the magnitude of a vector.
      *
      * @param Vector the vector object to calculate the magnitude of.
      * @return the magnitude of the vector as a double.
      */
     public static double abs(vector Vector) {
-        return Math.sqrt(Vector.x.pow(2).add(Vector.y.pow(2)).add(Vector.z.pow(2)).toDouble());
+        return Math.sqrt(Vector.squaredNorm().toDouble());
     }
 
     /**
@@ -223,83 +323,74 @@ public class vector {
      */
     public static String vectorFormat() {
         String oneTerm = "[^\\],]+";
-        return String.format("\\[%s(,%s)?(,%s)?\\]", oneTerm, oneTerm, oneTerm);
-    }
-
-    /**
-     * Checks if the given vector represents a 3-dimensional vector in the format [x, y, z].
-     * 
-     * @param VectorStr the string to check
-     * @return boolean - true if the string is in the format of a 3-dimensional vector, false otherwise
-     */
-    private static boolean isVector3DFormat(String VectorStr) {
-        String format = "\\[[^,]+,[^,]+,[^,]+\\]";
-        return VectorStr.strip().matches(format);
+        return String.format("\\[%s(,%s)*\\]", oneTerm, oneTerm);
     }
 
     /**
-     * Checks if the given vector represents a 2-dimensional vector in the format [x, y]. 
+     * Calculates the angle in degrees between two vectors.
      * 
-     * @param VectorStr the string to check
-     * @return boolean - true if the string is in the format of a 2-dimensional vector, false otherwise
+     * @param Vector the first vector object
+     * @param Vector2 the second vector object
+     * @return the angle in degrees between the two vectors - an integer
+     * @throws IllegalAccessException if the two vectors do not have the same dimensions
      */
-    private static boolean isVector2DFormat(String VectorStr) {
-        String format = "\\[[^,]+,[^,]+\\]";
-        return VectorStr.strip().matches(format);
+    public static int angle(vector Vector, vector Vector2) throws IllegalAccessException {
+        return (int)Math.round(exactAngle(Vector, Vector2));
     }
 
     /**
-     * Checks if the given vector represents a 1-dimensional vector in the format [x].
+     * Calculates the angles in degrees between pairs of vectors, the angle between first[i] and second[i] for every i.
+     * The squared magnitudes are kept by each vector, so a vector that appears in many pairs is only measured once.
      * 
-     * @param VectorStr the string to check
-     * @return boolean - true if the string is in the format of a 1-dimensional vector, false otherwise
+     * @param first the first vector of every pair
+     * @param second the second vector of every pair
+     * @return the angles in degrees between the pairs, not rounded
+     * @throws IllegalAccessException if the two vectors of a pair do not have the same dimensions
+     * @throws IllegalArgumentException if the two arrays are not the same length
      */
-    private static boolean isVector1DFormat(String VectorStr) {
-        String format = "\\[[^,]+\\]";
-        return VectorStr.strip().matches(format);
+    public static double[] angles(vector[] first, vector[] second) throws IllegalAccessException {
+        if (first.length != second.length) throw new IllegalArgumentException("Vector arrays are not the same length");
+        double[] angles = new double[first.length];
+        for (int i = 0; i < angles.length; i++) {
+            angles[i] = exactAngle(first[i], second[i]);
+        }
+        return angles;
     }
 
     /**
-     * Calculates the angle in degrees between two vectors.
+     * Calculates the angle between two vectors with the dot product and the product of the squared magnitudes
+     * calculated exactly, so only one square root and one arccos are rounded.
      * 
-     * @param Vector the first vector object
-     * @param Vector2 the second vector object
-     * @return the angle in degrees between the two vectors - an integer
+     * @param first the first vector
+     * @param second the second vector
+     * @return the angle in degrees between the two vectors
      * @throws IllegalAccessException if the two vectors do not have the same dimensions
      */
-    public static int angle(vector Vector, vector Vector2) throws IllegalAccessException {
-        double topAns = Vector.dotProduct(Vector2).getX().toDouble();
-        double bottumAns = abs(Vector) * abs(Vector2);
-        return (int)Math.round(Math.toDegrees(Math.acos(topAns/bottumAns)));
+    private static double exactAngle(vector first, vector second) throws IllegalAccessException {
+        double dot = first.dotProduct(second).getX().toDouble();
+        double norms = Math.sqrt(first.squaredNorm().multiply(second.squaredNorm()).toDouble());
+        // rounding can move the cosine of parallel vectors just outside of [-1, 1]
+        double cosine = Math.max(-1, Math.min(1, dot / norms));
+        return Math.toDegrees(Math.acos(cosine));
     }
 
     /**
-     * Checks if the string represents a valid vector format and returns the dimension of the vector.
+     * Returns a random 2D vector.
      *
-     * @param vec a string representation of a vector.
-     * @return the dimension of the vector as 1, 2 or 3 - as an integer.
-     * @throws IllegalAccessException if the vector format is incorrect.
+     * @return a random 2D vector object.
      */
-    private static int checkStringDimension(String vec) throws IllegalAccessException {
-        if (isVector3DFormat(vec)) {
-            return 3;
-        }
-        else if (isVector2DFormat(vec)) {
-            return 2;
-        }
-        else if (isVector1DFormat(vec)) {
-            return 1;
-        }
-        throw new IllegalAccessException("Vector format is incorrect");
+    public static vector random2D() {
+        return random2D(ThreadLocalRandom.current());
     }
 
     /**
-     * Returns a random 2D vector.
+     * Returns a random 2D vector from the given source of random numbers.
      *
+     * @param random the source of random numbers, like a seeded SplittableRandom
      * @return a random 2D vector object.
      */
-    public static vector random2D() {
-        return new vector(Fraction.random(), Fraction.random());
+    public static vector random2D(RandomGenerator random) {
+        return new vector(Fraction.random(random), Fraction.random(random));
     }
 
     /**
@@ -308,45 +399,67 @@ public class vector {
      * @return a random 3D vector object.
      */
     public static vector random3D() {
-        return new vector(Fraction.random(), Fraction.random(), Fraction.random());
+        return random3D(ThreadLocalRandom.current());
+    }
+
+    /**
+     * Returns a random 3D vector from the given source of random numbers.
+     *
+     * @param random the source of random numbers, like a seeded SplittableRandom
+     * @return a random 3D vector object.
+     */
+    public static vector random3D(RandomGenerator random) {
+        return new vector(Fraction.random(random), Fraction.random(random), Fraction.random(random));
     }
 
     /**
      * Returns a vector object from the input string representation of a vector.
      * 
-     * @param VectorStr the string representation of a vector in the format "[x, y, z]" or "[x, y]" or "[x]"
+     * @param VectorStr the string representation of a vector in the format "[x, y, z]" or "[x, y]" or "[x]", or with more components
      * @return a new vector object created from the input string representation
      * @throws IllegalAccessException if the input string does not match the expected format
      */
     public static vector valueOf(String VectorStr) throws IllegalAccessException {
-        if (VectorStr.matches(vectorFormat())) {
-
-            // remove brackets
-            String VectorM = VectorStr.replace("[", "");
-            VectorM = VectorM.replace("]", "");
-
-            Fraction x = null;
-            Fraction y = null;
-            Fraction z = null;
-
-            int D = checkStringDimension(VectorStr);
+        return valueOf(VectorStr, 0, VectorStr.length());
+    }
 
-            // Spilt the vector strings apart using the commas and create a new vector based on the string's dimensions 
-            if (D >= 1) {
-                x = Fraction.valueOf(VectorM.split(",")[0]);
-                if (D == 1) return new vector(x);
-            }
-            if (D >= 2) {
-                y = Fraction.valueOf(VectorM.split(",")[1].replace(",", ""));
-                if (D == 2) return new vector(x, y);
-            }
+    /**
+     * Returns a vector object from part of a character sequence, without creating substrings.
+     * The characters must start with "[" and end with "]", with 1 or more fractions separated by commas in between.
+     * 
+     * @param text the characters containing the vector
+     * @param start the index of the "[" of the vector
+     * @param end the index after the "]" of the vector
+     * @return a new vector object created from the characters
+     * @throws IllegalAccessException if the characters do not match the expected format
+     * @throws IllegalArgumentException if one of the fractions does not match the expected format
+     */
+    public static vector valueOf(CharSequence text, int start, int end) throws IllegalAccessException {
+        if (end - start < 2 || text.charAt(start) != '[' || text.charAt(end - 1) != ']') {
+            throw new IllegalAccessException("Invaild Vector Format");
+        }
 
-            z = Fraction.valueOf(VectorM.split(",")[2].replace(",", ""));
-            return new vector(x, y, z);
+        // Count the commas to find the dimension, then create a new vector from the text between them
+        int dimension = 1;
+        for (int index = start + 1; index < end - 1; index++) {
+            char current = text.charAt(index);
+            if (current == ',') dimension++;
+            else if (current == ']') throw new IllegalAccessException("Invaild Vector Format");
         }
-        else {
-            throw new IllegalAccessException("Invaild Vector Format");
+
+        Fraction components[] = new Fraction[dimension];
+        int componentStart = start + 1;
+        int component = 0;
+        for (int index = start + 1; index < end; index++) {
+            char current = text.charAt(index);
+            if (current != ',' && index != end - 1) continue;
+
+            if (index == componentStart) throw new IllegalAccessException("Invaild Vector Format");
+            components[component] = Fraction.valueOf(text, componentStart, index);
+            component++;
+            componentStart = index + 1;
         }
+        return new vector(components, true);
     }
 
     /**
@@ -367,6 +480,7 @@ public class vector {
         System.out.println(vector.valueOf("[3/5]")); // [3/5]
         System.out.println(vector.valueOf("[4 1/2]")); // [4 1/2]
         System.out.println(vector.valueOf("[3 1/2]")); // [3 1/2]
+        System.out.println(vector.valueOf("[1, 2/4, -3, 4 1/2, 5]").getDimension()); // 5
 
         vector a = new vector(new Fraction(4), new Fraction(3), new Fraction(0)); 
         vector b = new vector(new Fraction(8), new Fraction(-4), new Fraction(5));